@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.benchmark;
+
+import static de.fips.util.tinybinding.Bindings.bind;
+import static de.fips.util.tinybinding.Observables.observe;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.fips.util.tinybinding.BindingContexts;
+import de.fips.util.tinybinding.IBindingContext;
+import de.fips.util.tinybinding.IObservableValue;
+import de.fips.util.tinybinding.IValidationResult;
+import de.fips.util.tinybinding.IValidator;
+import de.fips.util.tinybinding.IValueObserver;
+import de.fips.util.tinybinding.ValidationResults;
+
+/**
+ * Measures the cost of binding and unbinding two {@link IObservableValue IObservableValues}
+ * and the cost of propagating a change through an existing binding.
+ * <p>
+ * The bound values carry a configurable number of unrelated observers, so the cost of
+ * touching the observer lists on the update path shows up in the propagation numbers.
+ * {@link #propagateValidated()} runs the same update through a binding with validators on both ends,
+ * to compare against the unvalidated default path.
+ *
+ * @author Philipp Eichhorn
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindingContextBenchmark {
+	private static final String[] VALUES = { "first", "second" };
+
+	@Param({ "0", "100" })
+	public int bystanders;
+
+	private IBindingContext context;
+	private IObservableValue<String> source;
+	private IObservableValue<String> target;
+	private IBindingContext boundContext;
+	private IObservableValue<String> boundSource;
+	private IObservableValue<String> boundTarget;
+	private IObservableValue<String> validatedSource;
+	private IObservableValue<String> validatedTarget;
+	private int counter;
+
+	@Setup
+	public void setUp() {
+		context = BindingContexts.defaultContext();
+		source = observe().value(VALUES[0]);
+		target = observe().value(VALUES[0]);
+		boundContext = BindingContexts.defaultContext();
+		boundSource = observe().value(VALUES[0]);
+		boundTarget = observe().value(VALUES[0]);
+		bind(boundSource).to(boundTarget).in(boundContext);
+		validatedSource = observe().value(VALUES[0]);
+		validatedTarget = observe().value(VALUES[0]);
+		bind(validatedSource).to(validatedTarget).updateTarget().validateAfterGet(new Accepting()).validateBeforeSet(new Accepting()).in(boundContext);
+		for (int i = 0; i < bystanders; i++) {
+			boundSource.addObserver(new Bystander());
+			boundTarget.addObserver(new Bystander());
+		}
+	}
+
+	@Benchmark
+	public IBindingContext bindAndUnbind() {
+		bind(source).to(target).in(context);
+		context.unbind(source, target);
+		return context;
+	}
+
+	@Benchmark
+	public boolean propagateSourceToTarget() {
+		return boundSource.set(VALUES[++counter & 1]);
+	}
+
+	@Benchmark
+	public boolean propagateTargetToSource() {
+		return boundTarget.set(VALUES[++counter & 1]);
+	}
+
+	@Benchmark
+	public boolean propagateValidated() {
+		return validatedSource.set(VALUES[++counter & 1]);
+	}
+
+	private static class Accepting implements IValidator<String> {
+		@Override
+		public IValidationResult validate(final String value) {
+			return ValidationResults.ok();
+		}
+	}
+
+	private static class Bystander implements IValueObserver<String> {
+		@Override
+		public void valueChanged(final String value, final String oldValue) {
+		}
+	}
+}
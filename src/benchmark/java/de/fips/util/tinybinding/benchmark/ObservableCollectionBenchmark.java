@@ -0,0 +1,251 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.benchmark;
+
+import static de.fips.util.tinybinding.Observables.observe;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.fips.util.tinybinding.IListObserver;
+import de.fips.util.tinybinding.IMapObserver;
+import de.fips.util.tinybinding.IObservableList;
+import de.fips.util.tinybinding.IObservableMap;
+import de.fips.util.tinybinding.IObservableSet;
+import de.fips.util.tinybinding.ISetObserver;
+import de.fips.util.tinybinding.IValueObserver;
+
+/**
+ * Measures the mutation cost of {@link IObservableList IObservableLists}, {@link IObservableMap IObservableMaps}
+ * and {@link IObservableSet IObservableSets} with a single registered observer, and of a map with one
+ * {@link IObservableMap#observeKey(Object) key observer} per key.
+ *
+ * @author Philipp Eichhorn
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObservableCollectionBenchmark {
+	@Param({ "10", "1000" })
+	private int size;
+
+	private IObservableList<Integer> list;
+	private IObservableMap<Integer, Integer> map;
+	private IObservableMap<Integer, Integer> keyObservedMap;
+	private IObservableSet<Integer> set;
+	private Map<Integer, Integer> reloadedEntries;
+	private List<Integer> elements;
+	private int counter;
+
+	@Setup(Level.Iteration)
+	public void setUp() {
+		elements = new ArrayList<Integer>();
+		for (int i = 0; i < size; i++) {
+			elements.add(Integer.valueOf(i));
+		}
+		list = observe().list(new ArrayList<Integer>(elements));
+		list.addObserver(new CountingListObserver());
+		map = observe().map(new HashMap<Integer, Integer>());
+		for (Integer element : elements) {
+			map.put(element, element);
+		}
+		map.addObserver(new CountingMapObserver());
+		reloadedEntries = new HashMap<Integer, Integer>(map);
+		keyObservedMap = observe().map(new HashMap<Integer, Integer>(reloadedEntries));
+		for (Integer element : elements) {
+			keyObservedMap.observeKey(element).addObserver(new CountingValueObserver(), false);
+		}
+		set = observe().set(new HashSet<Integer>(elements));
+		set.addObserver(new CountingSetObserver());
+	}
+
+	@Benchmark
+	public IObservableList<Integer> listAddAndRemove() {
+		list.add(elements.get(0));
+		list.remove(list.size() - 1);
+		return list;
+	}
+
+	@Benchmark
+	public IObservableList<Integer> listSet() {
+		final int index = ++counter % size;
+		list.set(index, elements.get(index));
+		return list;
+	}
+
+	@Benchmark
+	public IObservableList<Integer> listClearAndAddAll() {
+		list.clear();
+		list.addAll(elements);
+		return list;
+	}
+
+	@Benchmark
+	public IObservableList<Integer> listSetAllWithOneChange() {
+		final List<Integer> newElements = new ArrayList<Integer>(elements);
+		newElements.remove(++counter % size);
+		list.setAll(newElements);
+		list.setAll(elements);
+		return list;
+	}
+
+	@Benchmark
+	public IObservableMap<Integer, Integer> mapPutChanged() {
+		final Integer key = elements.get(++counter % size);
+		map.put(key, key);
+		return map;
+	}
+
+	@Benchmark
+	public IObservableMap<Integer, Integer> mapClearAndPutAll() {
+		map.clear();
+		map.putAll(reloadedEntries);
+		return map;
+	}
+
+	@Benchmark
+	public IObservableMap<Integer, Integer> mapPutAndRemove() {
+		final Integer key = Integer.valueOf(-1);
+		map.put(key, key);
+		map.remove(key);
+		return map;
+	}
+
+	@Benchmark
+	public IObservableMap<Integer, Integer> keyObservedMapPutChanged() {
+		final Integer key = elements.get(++counter % size);
+		keyObservedMap.put(key, Integer.valueOf(counter));
+		return keyObservedMap;
+	}
+
+	@Benchmark
+	public IObservableSet<Integer> setRemoveAndAdd() {
+		final Integer element = elements.get(++counter % size);
+		set.remove(element);
+		set.add(element);
+		return set;
+	}
+
+	@Benchmark
+	public IObservableSet<Integer> setClearAndAddAll() {
+		set.clear();
+		set.addAll(elements);
+		return set;
+	}
+
+	private static class CountingListObserver implements IListObserver<Integer> {
+		private int count;
+
+		@Override
+		public void valuesAdded(final IObservableList<Integer> list, final int index, final int length) {
+			count++;
+		}
+
+		@Override
+		public void valuesRemoved(final IObservableList<Integer> list, final int index, final List<Integer> oldElements) {
+			count++;
+		}
+
+		@Override
+		public void valueReplaced(final IObservableList<Integer> list, final int index, final Integer oldElement) {
+			count++;
+		}
+	}
+
+	private static class CountingMapObserver implements IMapObserver<Integer, Integer> {
+		private int count;
+
+		@Override
+		public void valueChanged(final IObservableMap<Integer, Integer> map, final Integer key, final Integer lastValue) {
+			count++;
+		}
+
+		@Override
+		public void valueAdded(final IObservableMap<Integer, Integer> map, final Integer key) {
+			count++;
+		}
+
+		@Override
+		public void valueRemoved(final IObservableMap<Integer, Integer> map, final Integer key, final Integer value) {
+			count++;
+		}
+
+		@Override
+		public void entriesAdded(final IObservableMap<Integer, Integer> map, final Set<Integer> keys) {
+			count++;
+		}
+
+		@Override
+		public void entriesChanged(final IObservableMap<Integer, Integer> map, final Map<Integer, Integer> lastValues) {
+			count++;
+		}
+
+		@Override
+		public void entriesRemoved(final IObservableMap<Integer, Integer> map, final Map<Integer, Integer> entries) {
+			count++;
+		}
+	}
+
+	private static class CountingSetObserver implements ISetObserver<Integer> {
+		private int count;
+
+		@Override
+		public void valuesAdded(final IObservableSet<Integer> set, final Set<Integer> elements) {
+			count++;
+		}
+
+		@Override
+		public void valuesRemoved(final IObservableSet<Integer> set, final Set<Integer> elements) {
+			count++;
+		}
+	}
+
+	private static class CountingValueObserver implements IValueObserver<Integer> {
+		private int count;
+
+		@Override
+		public void valueChanged(final Integer value, final Integer oldValue) {
+			count++;
+		}
+	}
+}
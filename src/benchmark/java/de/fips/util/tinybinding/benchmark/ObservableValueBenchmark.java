@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.benchmark;
+
+import static de.fips.util.tinybinding.Observables.observe;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.fips.util.tinybinding.IIntValueObserver;
+import de.fips.util.tinybinding.IObservableInt;
+import de.fips.util.tinybinding.IObservableValue;
+import de.fips.util.tinybinding.IValueObserver;
+
+/**
+ * Measures {@link de.fips.util.tinybinding.impl.ObservableValue#set(Object) ObservableValue.set(Object)}
+ * and the notification of its observers, as well as the cost of observer registration. {@link #setInt()} measures
+ * the unboxed {@link IObservableInt} with the same number of observers.
+ *
+ * @author Philipp Eichhorn
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObservableValueBenchmark {
+	private static final Integer[] VALUES = { Integer.valueOf(1), Integer.valueOf(2) };
+
+	@Param({ "1", "10", "100", "1000" })
+	private int observers;
+
+	private IObservableValue<Integer> value;
+	private IObservableInt intValue;
+	private CountingObserver extraObserver;
+	private int counter;
+
+	@Setup
+	public void setUp() {
+		value = observe().value(VALUES[0]);
+		for (int i = 0; i < observers; i++) {
+			value.addObserver(new CountingObserver(), false);
+		}
+		extraObserver = new CountingObserver();
+		intValue = observe().intValue(0);
+		for (int i = 0; i < observers; i++) {
+			intValue.addIntObserver(new CountingIntObserver());
+		}
+	}
+
+	@Benchmark
+	public boolean set() {
+		return value.set(VALUES[++counter & 1]);
+	}
+
+	@Benchmark
+	public boolean setUnchanged() {
+		return value.set(value.get());
+	}
+
+	@Benchmark
+	public boolean setInt() {
+		return intValue.setInt(++counter);
+	}
+
+	@Benchmark
+	public IObservableValue<Integer> addAndRemoveObserver() {
+		value.addObserver(extraObserver, false);
+		value.removeObserver(extraObserver);
+		return value;
+	}
+
+	private static class CountingObserver implements IValueObserver<Integer> {
+		private int count;
+
+		@Override
+		public void valueChanged(final Integer value, final Integer oldValue) {
+			count++;
+		}
+	}
+
+	private static class CountingIntObserver implements IIntValueObserver {
+		private int count;
+
+		@Override
+		public void valueChanged(final int value, final int oldValue) {
+			count++;
+		}
+	}
+}
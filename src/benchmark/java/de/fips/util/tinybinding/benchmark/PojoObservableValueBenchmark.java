@@ -0,0 +1,148 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.benchmark;
+
+import static de.fips.util.tinybinding.Observables.observe;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.fips.util.tinybinding.IObservableValue;
+import de.fips.util.tinybinding.PropertyAccessors;
+import de.fips.util.tinybinding.util.MethodHandlePropertyAccessorFactory;
+
+/**
+ * Measures round trips between POJO properties and their
+ * {@link de.fips.util.tinybinding.pojo.PojoObservable PojoObservable} values,
+ * once with reflection-based and once with method handle-based property accessors.
+ *
+ * @author Philipp Eichhorn
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PojoObservableValueBenchmark {
+	private static final String[] VALUES = { "first", "second" };
+
+	@Param({ "reflection", "methodHandle" })
+	private String accessors;
+
+	private Pojo pojo;
+	private BoundPojo boundPojo;
+	private IObservableValue<String> text;
+	private IObservableValue<Integer> number;
+	private IObservableValue<String> boundText;
+	private int counter;
+
+	@Setup
+	public void setUp() {
+		PropertyAccessors.setFactory("methodHandle".equals(accessors) ? new MethodHandlePropertyAccessorFactory() : PropertyAccessors.reflection());
+		pojo = new Pojo();
+		boundPojo = new BoundPojo();
+		text = observe(pojo).property("text", String.class);
+		number = observe(pojo).property("number", Integer.class);
+		boundText = observe(boundPojo).property("text", String.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		PropertyAccessors.setFactory(PropertyAccessors.reflection());
+	}
+
+	@Benchmark
+	public String setObservableValue() {
+		text.set(VALUES[++counter & 1]);
+		return pojo.getText();
+	}
+
+	@Benchmark
+	public int setPrimitiveObservableValue() {
+		number.set(Integer.valueOf(++counter & 1));
+		return pojo.getNumber();
+	}
+
+	@Benchmark
+	public String setBoundProperty() {
+		boundPojo.setText(VALUES[++counter & 1]);
+		return boundText.get();
+	}
+
+	@Benchmark
+	public IObservableValue<String> createObservableValue() {
+		return observe(pojo).property("text", String.class);
+	}
+
+	public static class Pojo {
+		private String text;
+		private int number;
+
+		public String getText() {
+			return text;
+		}
+
+		public void setText(final String text) {
+			this.text = text;
+		}
+
+		public int getNumber() {
+			return number;
+		}
+
+		public void setNumber(final int number) {
+			this.number = number;
+		}
+	}
+
+	public static class BoundPojo {
+		private final PropertyChangeSupport propertyChangeSupport = new PropertyChangeSupport(this);
+		private String text;
+
+		public void addPropertyChangeListener(final String propertyName, final PropertyChangeListener listener) {
+			propertyChangeSupport.addPropertyChangeListener(propertyName, listener);
+		}
+
+		public String getText() {
+			return text;
+		}
+
+		public void setText(final String text) {
+			propertyChangeSupport.firePropertyChange("text", this.text, this.text = text);
+		}
+	}
+}
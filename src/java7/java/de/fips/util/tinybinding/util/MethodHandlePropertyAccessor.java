@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.util;
+
+import java.lang.invoke.MethodHandle;
+
+import de.fips.util.tinybinding.IPropertyAccessor;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link IPropertyAccessor} that invokes the getter and setter of a property via method handles.
+ * <p>
+ * The getter is adapted to {@code (Object)Object} and the setter to {@code (Object,Object)void},
+ * so both can be invoked exactly without further conversions.
+ *
+ * @param <TYPE> Type of the property
+ * @author Philipp Eichhorn
+ */
+@RequiredArgsConstructor
+public final class MethodHandlePropertyAccessor<TYPE> implements IPropertyAccessor<TYPE> {
+	private final String propertyName;
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+
+	@Override
+	public boolean isReadable() {
+		return getter != null;
+	}
+
+	@Override
+	public boolean isWritable() {
+		return setter != null;
+	}
+
+	@Override
+	public TYPE get(final Object bean) {
+		if (getter == null) throw new IllegalStateException(String.format("Property '%s' is not readable.", propertyName));
+		try {
+			return Cast.<TYPE>uncheckedCast((Object) getter.invokeExact(bean));
+		} catch (Throwable e) {
+			throw new IllegalStateException(String.format("Unable to access property '%s'.", propertyName), e);
+		}
+	}
+
+	@Override
+	public void set(final Object bean, final TYPE value) {
+		if (setter == null) throw new IllegalStateException(String.format("Property '%s' is not writable.", propertyName));
+		try {
+			setter.invokeExact(bean, (Object) value);
+		} catch (Throwable e) {
+			throw new IllegalStateException(String.format("Unable to access property '%s'.", propertyName), e);
+		}
+	}
+}
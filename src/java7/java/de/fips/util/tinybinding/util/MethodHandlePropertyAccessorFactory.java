@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+import de.fips.util.tinybinding.IPropertyAccessor;
+import de.fips.util.tinybinding.IPropertyAccessorFactory;
+import de.fips.util.tinybinding.PropertyAccessors;
+
+/**
+ * Creates {@link MethodHandlePropertyAccessor MethodHandlePropertyAccessors}, which the JIT can inline
+ * into the call site instead of going through the reflective call path.
+ * <p>
+ * This factory requires Java 7. Select it via {@link PropertyAccessors#setFactory(IPropertyAccessorFactory)}
+ * or by setting the system property {@value PropertyAccessors#FACTORY_PROPERTY} to the name of this class.
+ *
+ * @author Philipp Eichhorn
+ */
+public final class MethodHandlePropertyAccessorFactory implements IPropertyAccessorFactory {
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	@Override
+	public <TYPE> IPropertyAccessor<TYPE> create(final String propertyName, final Method getter, final Method setter) {
+		try {
+			return new MethodHandlePropertyAccessor<TYPE>(propertyName, handle(getter, GETTER_TYPE), handle(setter, SETTER_TYPE));
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	private static MethodHandle handle(final Method method, final MethodType type) throws IllegalAccessException {
+		if (method == null) return null;
+		try {
+			method.setAccessible(true);
+		} catch (SecurityException ignore) {
+			// unreflecting still works for public methods
+		}
+		return MethodHandles.lookup().unreflect(method).asType(type);
+	}
+}
@@ -31,5 +31,15 @@ public interface IBindingContext {
 
 	public <SOURCE, TARGET> void unbind(IObservableValue<SOURCE> source, IObservableValue<TARGET> target);
 
+	/**
+	 * Removes every binding that uses {@code source} as its source.
+	 */
+	public void unbindAllFrom(IObservableValue<?> source);
+
+	/**
+	 * Removes every binding that uses {@code target} as its target.
+	 */
+	public void unbindAllTo(IObservableValue<?> target);
+
 	public void unbindAll();
 }
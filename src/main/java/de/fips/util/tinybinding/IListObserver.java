@@ -33,6 +33,9 @@ public interface IListObserver<ELEMENT> {
 
 	public void valuesAdded(IObservableList<ELEMENT> list, int index, int length);
 
+	/**
+	 * @param oldElements the removed elements, as an unmodifiable list that observers may keep.
+	 */
 	public void valuesRemoved(IObservableList<ELEMENT> list, int index, List<ELEMENT> oldElements);
 
 	public void valueReplaced(IObservableList<ELEMENT> list, int index, ELEMENT oldElement);
@@ -21,9 +21,17 @@
  */
 package de.fips.util.tinybinding;
 
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Implementations of this interface are capable of receiving data changes
  * of a {@link java.util.Map Map} data-structure.
+ * <p>
+ * Bulk operations like {@link Map#putAll(Map) putAll} and {@link Map#clear() clear} report their changes
+ * with the {@code entries*} methods, with at most one call per kind of change. Concurrent maps may split
+ * them up further, for example per lock stripe. Extend {@link MapObserverAdapter} to get them as single
+ * changes instead.
  *
  * @author Philipp Eichhorn
  */
@@ -34,4 +42,19 @@ public interface IMapObserver<KEY, VALUE> {
 	public void valueAdded(IObservableMap<KEY, VALUE> map, KEY key);
 
 	public void valueRemoved(IObservableMap<KEY, VALUE> map, KEY key, VALUE value);
+
+	/**
+	 * @param keys the keys that got added.
+	 */
+	public void entriesAdded(IObservableMap<KEY, VALUE> map, Set<KEY> keys);
+
+	/**
+	 * @param lastValues the changed keys, with the values they had before.
+	 */
+	public void entriesChanged(IObservableMap<KEY, VALUE> map, Map<KEY, VALUE> lastValues);
+
+	/**
+	 * @param entries the removed keys, with the values they had.
+	 */
+	public void entriesRemoved(IObservableMap<KEY, VALUE> map, Map<KEY, VALUE> entries);
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding;
+
+/**
+ * {@link IObservableValue} of a {@code boolean}, that can be read, written and observed without boxing.
+ * <p>
+ * {@link IValueObserver IValueObservers} still work, but only they get boxed values.
+ * {@link #set(Object) set(null)} is not supported.
+ *
+ * @author Philipp Eichhorn
+ */
+public interface IObservableBoolean extends IObservableValue<Boolean> {
+
+	public boolean getBoolean();
+
+	public boolean setBoolean(boolean value);
+
+	public void addBooleanObserver(IBooleanValueObserver observer);
+
+	public void removeBooleanObserver(IBooleanValueObserver observer);
+}
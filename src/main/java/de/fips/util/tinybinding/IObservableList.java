@@ -21,6 +21,8 @@
  */
 package de.fips.util.tinybinding;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -31,6 +33,30 @@ import java.util.List;
  */
 public interface IObservableList<ELEMENT> extends List<ELEMENT> {
 
+	/**
+	 * Replaces the content of this list with {@code elements}. Only the ranges that actually differ are
+	 * replaced, each with one {@link IListObserver#valuesRemoved valuesRemoved} and/or one
+	 * {@link IListObserver#valuesAdded valuesAdded} event.
+	 */
+	public void setAll(Collection<? extends ELEMENT> elements);
+
+	/**
+	 * Removes the elements from {@code fromIndex}, inclusive, to {@code toIndex}, exclusive, with a single event.
+	 */
+	public void removeRange(int fromIndex, int toIndex);
+
+	/**
+	 * Replaces each element with the result of {@code converter}. Every run of changed elements is reported
+	 * as one event. Not named {@code replaceAll}, so calls with a lambda do not clash with
+	 * {@code List.replaceAll(UnaryOperator)} of Java 8.
+	 */
+	public void convertAll(IConverter<? super ELEMENT, ? extends ELEMENT> converter);
+
+	/**
+	 * Sorts this list; the range of elements that moved is reported as one removal and one addition.
+	 */
+	public void sort(Comparator<? super ELEMENT> comparator);
+
 	public void addObserver(IListObserver<ELEMENT> observer);
 
 	public void removeObserver(IListObserver<ELEMENT> observer);
@@ -34,4 +34,11 @@ public interface IObservableMap<KEY, VALUE> extends Map<KEY, VALUE> {
 	public void addObserver(IMapObserver<KEY, VALUE> observer);
 
 	public void removeObserver(IMapObserver<KEY, VALUE> observer);
+
+	/**
+	 * Returns the value of {@code key} in this map as an {@link IObservableValue}. Setting it puts the value
+	 * into this map, setting {@code null} removes {@code key}. Its observers are notified of changes of
+	 * {@code key} only, so they cost nothing when other keys change.
+	 */
+	public IObservableValue<VALUE> observeKey(KEY key);
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding;
+
+import java.lang.reflect.Method;
+
+/**
+ * Implementations of this interface are capable of creating {@link IPropertyAccessor IPropertyAccessors}
+ * for resolved getters and setters, for example the {@code MethodHandlePropertyAccessorFactory}
+ * that ships for Java 7 and invokes them via method handles the JIT can inline.
+ * <p>
+ * Factories are selected via {@link PropertyAccessors#setFactory(IPropertyAccessorFactory)} or the system property
+ * {@value PropertyAccessors#FACTORY_PROPERTY}, which names a factory class with a public no-argument constructor.
+ *
+ * @author Philipp Eichhorn
+ */
+public interface IPropertyAccessorFactory {
+
+	/**
+	 * @param getter the getter of the property, or {@code null} if the property is not readable.
+	 * @param setter the setter of the property, or {@code null} if the property is not writable.
+	 * @return the accessor, or {@code null} if this factory is unable to create one, in which case
+	 *         a reflection-based accessor is used.
+	 */
+	public <TYPE> IPropertyAccessor<TYPE> create(String propertyName, Method getter, Method setter);
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding;
+
+import java.util.Set;
+
+/**
+ * Implementations of this interface are capable of receiving data changes
+ * of a {@link java.util.Set Set} data-structure.
+ * <p>
+ * Every change is reported with the set of elements it affected, so bulk operations like
+ * {@link Set#addAll(java.util.Collection) addAll} and {@link Set#clear() clear} cause one call only.
+ *
+ * @author Philipp Eichhorn
+ */
+public interface ISetObserver<ELEMENT> {
+
+	/**
+	 * @param elements the elements that got added.
+	 */
+	public void valuesAdded(IObservableSet<ELEMENT> set, Set<ELEMENT> elements);
+
+	/**
+	 * @param elements the elements that got removed.
+	 */
+	public void valuesRemoved(IObservableSet<ELEMENT> set, Set<ELEMENT> elements);
+}
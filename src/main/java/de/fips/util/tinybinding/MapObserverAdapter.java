@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link IMapObserver} that receives bulk changes as a sequence of single changes, for observers that
+ * only implement {@link #valueAdded valueAdded}, {@link #valueChanged valueChanged} and
+ * {@link #valueRemoved valueRemoved}.
+ *
+ * @author Philipp Eichhorn
+ */
+public abstract class MapObserverAdapter<KEY, VALUE> implements IMapObserver<KEY, VALUE> {
+
+	@Override
+	public void entriesAdded(final IObservableMap<KEY, VALUE> map, final Set<KEY> keys) {
+		for (KEY key : keys) {
+			valueAdded(map, key);
+		}
+	}
+
+	@Override
+	public void entriesChanged(final IObservableMap<KEY, VALUE> map, final Map<KEY, VALUE> lastValues) {
+		for (Map.Entry<KEY, VALUE> entry : lastValues.entrySet()) {
+			valueChanged(map, entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public void entriesRemoved(final IObservableMap<KEY, VALUE> map, final Map<KEY, VALUE> entries) {
+		for (Map.Entry<KEY, VALUE> entry : entries.entrySet()) {
+			valueRemoved(map, entry.getKey(), entry.getValue());
+		}
+	}
+}
@@ -24,6 +24,7 @@ package de.fips.util.tinybinding;
 import java.awt.Container;
 
 import de.fips.util.tinybinding.impl.Observable;
+import de.fips.util.tinybinding.impl.Transaction;
 import de.fips.util.tinybinding.pojo.PojoObservable;
 import de.fips.util.tinybinding.swing.SwingObservable;
 import lombok.AccessLevel;
@@ -47,4 +48,13 @@ public final class Observables {
 	public static Observable observe() {
 		return new Observable();
 	}
+
+	/**
+	 * Runs {@code batch} and defers the notifications of every value changed on the current thread until
+	 * it ends. Each changed value then notifies its observers once, with its value from before the batch
+	 * and its current value. Nested batches join the outer one.
+	 */
+	public static void batch(final Runnable batch) {
+		Transaction.run(batch);
+	}
 }
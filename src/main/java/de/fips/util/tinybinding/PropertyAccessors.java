@@ -0,0 +1,157 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding;
+
+import static de.fips.util.tinybinding.util.Reflection.getPrimitive;
+import static de.fips.util.tinybinding.util.Reflection.hasPrimitive;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import de.fips.util.tinybinding.util.Cast;
+import de.fips.util.tinybinding.util.ReflectionPropertyAccessorFactory;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Creates and caches {@link IPropertyAccessor IPropertyAccessors} for bean properties.
+ * <p>
+ * Accessors are resolved once per bean class, property name and property type,
+ * including the fallback to the primitive property type. The cache does not keep bean classes
+ * reachable, so they can still be unloaded together with their class loader.
+ *
+ * @author Philipp Eichhorn
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PropertyAccessors {
+	public static final String FACTORY_PROPERTY = "tinybinding.propertyAccessorFactory";
+
+	private static final IPropertyAccessorFactory REFLECTION = new ReflectionPropertyAccessorFactory();
+	private static final Map<Class<?>, SoftReference<ConcurrentMap<Key, IPropertyAccessor<?>>>> ACCESSORS = new WeakHashMap<Class<?>, SoftReference<ConcurrentMap<Key, IPropertyAccessor<?>>>>();
+	private static volatile IPropertyAccessorFactory factory = configuredFactory();
+
+	public static <TYPE> IPropertyAccessor<TYPE> of(final Class<?> beanType, final String propertyName, final Class<TYPE> propertyType) {
+		final ConcurrentMap<Key, IPropertyAccessor<?>> accessors = accessorsOf(beanType);
+		final Key key = new Key(propertyName, propertyType);
+		IPropertyAccessor<?> accessor = accessors.get(key);
+		if (accessor == null) {
+			accessor = resolve(beanType, propertyName, propertyType);
+			final IPropertyAccessor<?> existingAccessor = accessors.putIfAbsent(key, accessor);
+			if (existingAccessor != null) accessor = existingAccessor;
+		}
+		return Cast.<IPropertyAccessor<TYPE>>uncheckedCast(accessor);
+	}
+
+	public static IPropertyAccessorFactory reflection() {
+		return REFLECTION;
+	}
+
+	public static IPropertyAccessorFactory getFactory() {
+		return factory;
+	}
+
+	/**
+	 * Selects the factory used for all accessors resolved from now on.
+	 */
+	public static void setFactory(final IPropertyAccessorFactory factory) {
+		PropertyAccessors.factory = (factory == null) ? REFLECTION : factory;
+		synchronized (ACCESSORS) {
+			ACCESSORS.clear();
+		}
+	}
+
+	/**
+	 * The accessors of a bean class reference its getters and setters and with them the class itself,
+	 * so they are held softly, otherwise the weak key would never be cleared.
+	 */
+	private static ConcurrentMap<Key, IPropertyAccessor<?>> accessorsOf(final Class<?> beanType) {
+		synchronized (ACCESSORS) {
+			final SoftReference<ConcurrentMap<Key, IPropertyAccessor<?>>> reference = ACCESSORS.get(beanType);
+			ConcurrentMap<Key, IPropertyAccessor<?>> accessors = (reference == null) ? null : reference.get();
+			if (accessors == null) {
+				accessors = new ConcurrentHashMap<Key, IPropertyAccessor<?>>();
+				ACCESSORS.put(beanType, new SoftReference<ConcurrentMap<Key, IPropertyAccessor<?>>>(accessors));
+			}
+			return accessors;
+		}
+	}
+
+	private static <TYPE> IPropertyAccessor<TYPE> resolve(final Class<?> beanType, final String propertyName, final Class<TYPE> propertyType) {
+		final PropertyDescriptor descriptor = descriptorFor(beanType, propertyName);
+		if ((descriptor == null) || !isOfType(descriptor, propertyType)) {
+			return REFLECTION.create(propertyName, null, null);
+		}
+		final Method getter = descriptor.getReadMethod();
+		final Method setter = descriptor.getWriteMethod();
+		final IPropertyAccessorFactory currentFactory = factory;
+		if (currentFactory != REFLECTION) try {
+			final IPropertyAccessor<TYPE> accessor = currentFactory.create(propertyName, getter, setter);
+			if (accessor != null) return accessor;
+		} catch (RuntimeException ignore) {
+			// fall back to reflection
+		}
+		return REFLECTION.create(propertyName, getter, setter);
+	}
+
+	private static PropertyDescriptor descriptorFor(final Class<?> beanType, final String propertyName) {
+		try {
+			for (PropertyDescriptor descriptor : Introspector.getBeanInfo(beanType).getPropertyDescriptors()) {
+				if (propertyName.equals(descriptor.getName())) return descriptor;
+			}
+		} catch (IntrospectionException ignore) {
+			// fall through
+		}
+		return null;
+	}
+
+	private static boolean isOfType(final PropertyDescriptor descriptor, final Class<?> propertyType) {
+		final Class<?> type = descriptor.getPropertyType();
+		if (type == null) return false;
+		return propertyType.isAssignableFrom(type) || (hasPrimitive(propertyType) && (getPrimitive(propertyType) == type));
+	}
+
+	private static IPropertyAccessorFactory configuredFactory() {
+		try {
+			final String factoryClassName = System.getProperty(FACTORY_PROPERTY);
+			if (factoryClassName != null) {
+				return (IPropertyAccessorFactory) Class.forName(factoryClassName).newInstance();
+			}
+		} catch (Exception ignore) {
+			// fall back to reflection
+		}
+		return REFLECTION;
+	}
+
+	@Data
+	private static class Key {
+		private final String propertyName;
+		private final Class<?> propertyType;
+	}
+}
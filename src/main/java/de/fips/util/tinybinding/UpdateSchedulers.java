@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import de.fips.util.tinybinding.impl.CoalescingScheduler;
+import de.fips.util.tinybinding.impl.DebounceScheduler;
+import de.fips.util.tinybinding.impl.EventDispatchExecutor;
+import de.fips.util.tinybinding.impl.ImmediateScheduler;
+import de.fips.util.tinybinding.impl.SampleScheduler;
+import de.fips.util.tinybinding.impl.SharedScheduler;
+import de.fips.util.tinybinding.impl.ThrottleScheduler;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Philipp Eichhorn
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class UpdateSchedulers {
+
+	/**
+	 * Propagates every change right away on the thread that changed the source.
+	 */
+	public static IUpdateScheduler immediate() {
+		return ImmediateScheduler.INSTANCE;
+	}
+
+	/**
+	 * Runs tasks on the event dispatch thread. Pass it to the schedulers below if a binding reads or writes
+	 * Swing components in its converters or validators.
+	 */
+	public static Executor eventDispatchThread() {
+		return EventDispatchExecutor.INSTANCE;
+	}
+
+	/**
+	 * Same as {@link #coalesce(Executor)}, using the shared update threads of tinybinding.
+	 */
+	public static IUpdateScheduler coalesce() {
+		return coalesce(SharedScheduler.updates());
+	}
+
+	/**
+	 * Propagates on {@code executor}. Changes that arrive while an update is pending or running are
+	 * folded into a single update that sees only the latest value of the source. Updates of one
+	 * binding never run concurrently.
+	 */
+	public static IUpdateScheduler coalesce(final Executor executor) {
+		return new CoalescingScheduler(executor);
+	}
+
+	/**
+	 * Same as {@link #throttle(long, TimeUnit, Executor)}, using the shared update threads of tinybinding.
+	 */
+	public static IUpdateScheduler throttle(final long interval, final TimeUnit unit) {
+		return throttle(interval, unit, SharedScheduler.updates());
+	}
+
+	/**
+	 * Propagates at most once per {@code interval}: the first change right away, all further changes
+	 * within the interval as one update at its end. The shared scheduler thread only keeps the time,
+	 * the updates run on {@code executor}.
+	 */
+	public static IUpdateScheduler throttle(final long interval, final TimeUnit unit, final Executor executor) {
+		return new ThrottleScheduler(SharedScheduler.get(), executor, interval, unit);
+	}
+
+	/**
+	 * Same as {@link #debounce(long, TimeUnit, Executor)}, using the shared update threads of tinybinding.
+	 */
+	public static IUpdateScheduler debounce(final long quietPeriod, final TimeUnit unit) {
+		return debounce(quietPeriod, unit, SharedScheduler.updates());
+	}
+
+	/**
+	 * Propagates once the source has not changed for {@code quietPeriod}. The shared scheduler thread
+	 * only keeps the time, the updates run on {@code executor}.
+	 */
+	public static IUpdateScheduler debounce(final long quietPeriod, final TimeUnit unit, final Executor executor) {
+		return new DebounceScheduler(SharedScheduler.get(), executor, quietPeriod, unit);
+	}
+
+	/**
+	 * Same as {@link #sample(long, TimeUnit, Executor)}, using the shared update threads of tinybinding.
+	 */
+	public static IUpdateScheduler sample(final long period, final TimeUnit unit) {
+		return sample(period, unit, SharedScheduler.updates());
+	}
+
+	/**
+	 * Propagates the latest value every {@code period}, if the source changed during that period.
+	 * The shared scheduler thread only keeps the time, the updates run on {@code executor}.
+	 */
+	public static IUpdateScheduler sample(final long period, final TimeUnit unit, final Executor executor) {
+		return new SampleScheduler(SharedScheduler.get(), executor, period, unit);
+	}
+}
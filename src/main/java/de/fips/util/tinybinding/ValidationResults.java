@@ -31,7 +31,7 @@ import lombok.NoArgsConstructor;
 public final class ValidationResults {
 
 	public static IValidationResult ok() {
-		return new ValidationResult(Type.OK, "");
+		return ValidationResult.OK;
 	}
 
 	public static IValidationResult warning(final String message) {
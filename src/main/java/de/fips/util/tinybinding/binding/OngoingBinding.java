@@ -21,11 +21,15 @@
  */
 package de.fips.util.tinybinding.binding;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
 import de.fips.util.tinybinding.BindingContexts;
 import de.fips.util.tinybinding.IBindingContext;
 import de.fips.util.tinybinding.IConverter;
 import de.fips.util.tinybinding.IObservableValue;
 import de.fips.util.tinybinding.IValidator;
+import de.fips.util.tinybinding.UpdateSchedulers;
 import de.fips.util.tinybinding.impl.UpdateStrategy;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -130,6 +134,57 @@ public class OngoingBinding<TYPE> {
 			return this;
 		}
 
+		public WithUpdateStrategy<SOURCE, TARGET, SOURCE_, TARGET_> coalesce() {
+			updateStrategy.scheduler(UpdateSchedulers.coalesce());
+			return this;
+		}
+
+		public WithUpdateStrategy<SOURCE, TARGET, SOURCE_, TARGET_> coalesce(final Executor executor) {
+			updateStrategy.scheduler(UpdateSchedulers.coalesce(executor));
+			return this;
+		}
+
+		/**
+		 * Runs validation and conversion on {@code compute}, so expensive converters stay off the thread
+		 * that changed the source, e.g. the event dispatch thread, and sets the target on {@code apply}.
+		 * Updates run one at a time and only for the latest value, like {@link #coalesce(Executor)};
+		 * a result that got stale before it could be set is dropped.
+		 */
+		public WithUpdateStrategy<SOURCE, TARGET, SOURCE_, TARGET_> async(final Executor compute, final Executor apply) {
+			updateStrategy.scheduler(UpdateSchedulers.coalesce(compute)).applyExecutor(apply);
+			return this;
+		}
+
+		public WithUpdateStrategy<SOURCE, TARGET, SOURCE_, TARGET_> throttle(final long interval, final TimeUnit unit) {
+			updateStrategy.scheduler(UpdateSchedulers.throttle(interval, unit));
+			return this;
+		}
+
+		public WithUpdateStrategy<SOURCE, TARGET, SOURCE_, TARGET_> throttle(final long interval, final TimeUnit unit, final Executor executor) {
+			updateStrategy.scheduler(UpdateSchedulers.throttle(interval, unit, executor));
+			return this;
+		}
+
+		public WithUpdateStrategy<SOURCE, TARGET, SOURCE_, TARGET_> debounce(final long quietPeriod, final TimeUnit unit) {
+			updateStrategy.scheduler(UpdateSchedulers.debounce(quietPeriod, unit));
+			return this;
+		}
+
+		public WithUpdateStrategy<SOURCE, TARGET, SOURCE_, TARGET_> debounce(final long quietPeriod, final TimeUnit unit, final Executor executor) {
+			updateStrategy.scheduler(UpdateSchedulers.debounce(quietPeriod, unit, executor));
+			return this;
+		}
+
+		public WithUpdateStrategy<SOURCE, TARGET, SOURCE_, TARGET_> sample(final long period, final TimeUnit unit) {
+			updateStrategy.scheduler(UpdateSchedulers.sample(period, unit));
+			return this;
+		}
+
+		public WithUpdateStrategy<SOURCE, TARGET, SOURCE_, TARGET_> sample(final long period, final TimeUnit unit, final Executor executor) {
+			updateStrategy.scheduler(UpdateSchedulers.sample(period, unit, executor));
+			return this;
+		}
+
 		public WithTarget<SOURCE_, TARGET_> and() {
 			return withTarget;
 		}
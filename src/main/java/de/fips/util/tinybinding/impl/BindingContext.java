@@ -24,15 +24,26 @@ package de.fips.util.tinybinding.impl;
 import static de.fips.util.tinybinding.util.Cast.uncheckedCast;
 
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import de.fips.util.tinybinding.IBindingContext;
+import de.fips.util.tinybinding.IBooleanValueObserver;
+import de.fips.util.tinybinding.IDoubleValueObserver;
+import de.fips.util.tinybinding.IIntValueObserver;
+import de.fips.util.tinybinding.ILongValueObserver;
+import de.fips.util.tinybinding.IObservableBoolean;
+import de.fips.util.tinybinding.IObservableDouble;
+import de.fips.util.tinybinding.IObservableInt;
+import de.fips.util.tinybinding.IObservableLong;
 import de.fips.util.tinybinding.IObservableValue;
+import de.fips.util.tinybinding.IUpdateScheduler;
 import de.fips.util.tinybinding.IUpdateStrategy;
-import de.fips.util.tinybinding.IValidationResult;
 import de.fips.util.tinybinding.IValueObserver;
 import lombok.Data;
-import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 
 /**
@@ -41,12 +52,17 @@ import lombok.Setter;
  */
 public final class BindingContext implements IBindingContext {
 	private final Map<Pair<?, ?>, Binding<?, ?>> bindings = new HashMap<Pair<?, ?>, Binding<?, ?>>();
+	private final Map<IObservableValue<?>, Set<Binding<?, ?>>> bindingsBySource = new HashMap<IObservableValue<?>, Set<Binding<?, ?>>>();
+	private final Map<IObservableValue<?>, Set<Binding<?, ?>>> bindingsByTarget = new HashMap<IObservableValue<?>, Set<Binding<?, ?>>>();
 
 	@Override
 	public <SOURCE, TARGET> void bind(final IObservableValue<SOURCE> source, final IObservableValue<TARGET> target,
 			final IUpdateStrategy<SOURCE, TARGET> sourceToTarget, final IUpdateStrategy<TARGET, SOURCE> targetToSource) {
-		Binding<SOURCE, TARGET> binding = new Binding<SOURCE, TARGET>(source, target, sourceToTarget, targetToSource);
+		unbind(source, target);
+		Binding<SOURCE, TARGET> binding = newBinding(source, target, sourceToTarget, targetToSource);
 		bindings.put(Pair.of(source, target), binding);
+		index(bindingsBySource, source, binding);
+		index(bindingsByTarget, target, binding);
 		binding.bind();
 	}
 
@@ -54,76 +70,386 @@ public final class BindingContext implements IBindingContext {
 	public <SOURCE, TARGET> void unbind(final IObservableValue<SOURCE> source, final IObservableValue<TARGET> target) {
 		Binding<SOURCE, TARGET> binder = uncheckedCast(bindings.get(Pair.of(source, target)));
 		if (binder != null) {
-			bindings.put(Pair.of(source, target), null);
-			binder.unbind();
+			remove(binder);
 		}
 	}
 
+	@Override
+	public void unbindAllFrom(final IObservableValue<?> source) {
+		removeAll(bindingsBySource.get(source));
+	}
+
+	@Override
+	public void unbindAllTo(final IObservableValue<?> target) {
+		removeAll(bindingsByTarget.get(target));
+	}
+
 	@Override
 	public void unbindAll() {
-		for (Pair<?, ?> key : bindings.keySet()) {
-			Binding<?, ?> binder = bindings.get(key);
-			if (binder != null) {
-				binder.unbind();
-			}
+		for (Binding<?, ?> binder : bindings.values()) {
+			binder.unbind();
 		}
 		bindings.clear();
+		bindingsBySource.clear();
+		bindingsByTarget.clear();
+	}
+
+	private void removeAll(final Set<Binding<?, ?>> binders) {
+		if (binders != null) {
+			for (Binding<?, ?> binder : binders.toArray(new Binding<?, ?>[binders.size()])) {
+				remove(binder);
+			}
+		}
+	}
+
+	private void remove(final Binding<?, ?> binder) {
+		bindings.remove(Pair.of(binder.source, binder.target));
+		unindex(bindingsBySource, binder.source, binder);
+		unindex(bindingsByTarget, binder.target, binder);
+		binder.unbind();
 	}
 
-	private static class Binding<SOURCE, TARGET> {
-		private final IObservableValue<SOURCE> source;
-		private final IObservableValue<TARGET> target;
+	private static void index(final Map<IObservableValue<?>, Set<Binding<?, ?>>> index, final IObservableValue<?> key, final Binding<?, ?> binder) {
+		Set<Binding<?, ?>> binders = index.get(key);
+		if (binders == null) {
+			binders = new LinkedHashSet<Binding<?, ?>>();
+			index.put(key, binders);
+		}
+		binders.add(binder);
+	}
+
+	private static void unindex(final Map<IObservableValue<?>, Set<Binding<?, ?>>> index, final IObservableValue<?> key, final Binding<?, ?> binder) {
+		final Set<Binding<?, ?>> binders = index.get(key);
+		if ((binders != null) && binders.remove(binder) && binders.isEmpty()) {
+			index.remove(key);
+		}
+	}
+
+	/**
+	 * Binds primitive values of the same kind directly, if both strategies just copy values right away.
+	 */
+	private static <SOURCE, TARGET> Binding<SOURCE, TARGET> newBinding(final IObservableValue<SOURCE> source, final IObservableValue<TARGET> target,
+			final IUpdateStrategy<SOURCE, TARGET> sourceToTarget, final IUpdateStrategy<TARGET, SOURCE> targetToSource) {
+		if (isIdentity(sourceToTarget) && isIdentity(targetToSource)) {
+			for (Primitive primitive : Primitive.values()) {
+				if (primitive.accepts(source) && primitive.accepts(target)) {
+					final IObservableValue<SOURCE> value = uncheckedCast(target);
+					return uncheckedCast(new PrimitiveBinding<SOURCE>(source, value, primitive, sourceToTarget != null, targetToSource != null));
+				}
+			}
+		}
+		return new ObserverBinding<SOURCE, TARGET>(source, target, sourceToTarget, targetToSource);
+	}
+
+	private static boolean isIdentity(final IUpdateStrategy<?, ?> strategy) {
+		return (strategy == null) || ((strategy instanceof UpdateStrategy) && ((UpdateStrategy<?, ?>) strategy).isIdentity());
+	}
+
+	private abstract static class Binding<SOURCE, TARGET> {
+		protected final IObservableValue<SOURCE> source;
+		protected final IObservableValue<TARGET> target;
+
+		public Binding(final IObservableValue<SOURCE> source, final IObservableValue<TARGET> target) {
+			this.source = source;
+			this.target = target;
+		}
+
+		public abstract void bind();
+
+		public abstract void unbind();
+	}
+
+	private static class ObserverBinding<SOURCE, TARGET> extends Binding<SOURCE, TARGET> {
 		private final ValueObserver<SOURCE, TARGET> sourceObserver;
 		private final ValueObserver<TARGET, SOURCE> targetObserver;
 
-		public Binding(final IObservableValue<SOURCE> source, final IObservableValue<TARGET> target, final IUpdateStrategy<SOURCE, TARGET> sourceToTarget,
+		public ObserverBinding(final IObservableValue<SOURCE> source, final IObservableValue<TARGET> target, final IUpdateStrategy<SOURCE, TARGET> sourceToTarget,
 				final IUpdateStrategy<TARGET, SOURCE> targetToSource) {
-			this.source = source;
-			this.target = target;
+			super(source, target);
 			sourceObserver = new ValueObserver<SOURCE, TARGET>(source, target, sourceToTarget);
 			targetObserver = new ValueObserver<TARGET, SOURCE>(target, source, targetToSource);
 			sourceObserver.setTargetObserver(targetObserver);
 			targetObserver.setTargetObserver(sourceObserver);
 		}
 
+		@Override
 		public void bind() {
+			sourceObserver.bound = true;
+			targetObserver.bound = true;
 			source.addObserver(sourceObserver);
 			target.addObserver(targetObserver);
 		}
 
+		@Override
 		public void unbind() {
+			sourceObserver.bound = false;
+			targetObserver.bound = false;
 			source.removeObserver(sourceObserver);
 			target.removeObserver(targetObserver);
 		}
 	}
 
-	@RequiredArgsConstructor
-	private static class ValueObserver<S, T> implements IValueObserver<S> {
+	/**
+	 * Copies the values of primitive observables without boxing and without an {@link IUpdateStrategy}.
+	 * <p>
+	 * While one side is written, {@link #updating} makes the binding ignore the resulting change, the same way
+	 * {@link ValueObserver#updatingTarget} does. Everything specific to the kind of primitive is left to
+	 * {@link Primitive}.
+	 */
+	private static final class PrimitiveBinding<TYPE> extends Binding<TYPE, TYPE> {
+		private final Primitive primitive;
+		private final Copy sourceObserver;
+		private final Copy targetObserver;
+		private volatile boolean updating;
+
+		public PrimitiveBinding(final IObservableValue<TYPE> source, final IObservableValue<TYPE> target, final Primitive primitive,
+				final boolean sourceToTarget, final boolean targetToSource) {
+			super(source, target);
+			this.primitive = primitive;
+			sourceObserver = sourceToTarget ? new Copy(source, target) : null;
+			targetObserver = targetToSource ? new Copy(target, source) : null;
+		}
+
+		@Override
+		public void bind() {
+			if (sourceObserver != null) {
+				primitive.observe(source, sourceObserver, true);
+				sourceObserver.update();
+			}
+			if (targetObserver != null) {
+				primitive.observe(target, targetObserver, true);
+				targetObserver.update();
+			}
+		}
+
+		@Override
+		public void unbind() {
+			if (sourceObserver != null) primitive.observe(source, sourceObserver, false);
+			if (targetObserver != null) primitive.observe(target, targetObserver, false);
+		}
+
+		private final class Copy extends PrimitiveObserver {
+			private final IObservableValue<TYPE> from;
+			private final IObservableValue<TYPE> to;
+
+			public Copy(final IObservableValue<TYPE> from, final IObservableValue<TYPE> to) {
+				this.from = from;
+				this.to = to;
+			}
+
+			@Override
+			public void update() {
+				if (updating) return;
+				updating = true;
+				try {
+					primitive.copy(from, to);
+				} finally {
+					updating = false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Observes any kind of primitive observable and runs {@link #update()} on every change.
+	 */
+	private abstract static class PrimitiveObserver implements IIntValueObserver, ILongValueObserver, IDoubleValueObserver, IBooleanValueObserver {
+
+		public abstract void update();
+
+		@Override
+		public final void valueChanged(final int value, final int oldValue) {
+			update();
+		}
+
+		@Override
+		public final void valueChanged(final long value, final long oldValue) {
+			update();
+		}
+
+		@Override
+		public final void valueChanged(final double value, final double oldValue) {
+			update();
+		}
+
+		@Override
+		public final void valueChanged(final boolean value, final boolean oldValue) {
+			update();
+		}
+	}
+
+	/**
+	 * The kinds of primitive observables a {@link PrimitiveBinding} can copy.
+	 */
+	private enum Primitive {
+		INT {
+			@Override
+			boolean accepts(final IObservableValue<?> value) {
+				return value instanceof IObservableInt;
+			}
+
+			@Override
+			void observe(final IObservableValue<?> value, final PrimitiveObserver observer, final boolean observe) {
+				if (observe) {
+					((IObservableInt) value).addIntObserver(observer);
+				} else {
+					((IObservableInt) value).removeIntObserver(observer);
+				}
+			}
+
+			@Override
+			void copy(final IObservableValue<?> from, final IObservableValue<?> to) {
+				((IObservableInt) to).setInt(((IObservableInt) from).getInt());
+			}
+		},
+		LONG {
+			@Override
+			boolean accepts(final IObservableValue<?> value) {
+				return value instanceof IObservableLong;
+			}
+
+			@Override
+			void observe(final IObservableValue<?> value, final PrimitiveObserver observer, final boolean observe) {
+				if (observe) {
+					((IObservableLong) value).addLongObserver(observer);
+				} else {
+					((IObservableLong) value).removeLongObserver(observer);
+				}
+			}
+
+			@Override
+			void copy(final IObservableValue<?> from, final IObservableValue<?> to) {
+				((IObservableLong) to).setLong(((IObservableLong) from).getLong());
+			}
+		},
+		DOUBLE {
+			@Override
+			boolean accepts(final IObservableValue<?> value) {
+				return value instanceof IObservableDouble;
+			}
+
+			@Override
+			void observe(final IObservableValue<?> value, final PrimitiveObserver observer, final boolean observe) {
+				if (observe) {
+					((IObservableDouble) value).addDoubleObserver(observer);
+				} else {
+					((IObservableDouble) value).removeDoubleObserver(observer);
+				}
+			}
+
+			@Override
+			void copy(final IObservableValue<?> from, final IObservableValue<?> to) {
+				((IObservableDouble) to).setDouble(((IObservableDouble) from).getDouble());
+			}
+		},
+		BOOLEAN {
+			@Override
+			boolean accepts(final IObservableValue<?> value) {
+				return value instanceof IObservableBoolean;
+			}
+
+			@Override
+			void observe(final IObservableValue<?> value, final PrimitiveObserver observer, final boolean observe) {
+				if (observe) {
+					((IObservableBoolean) value).addBooleanObserver(observer);
+				} else {
+					((IObservableBoolean) value).removeBooleanObserver(observer);
+				}
+			}
+
+			@Override
+			void copy(final IObservableValue<?> from, final IObservableValue<?> to) {
+				((IObservableBoolean) to).setBoolean(((IObservableBoolean) from).getBoolean());
+			}
+		};
+
+		abstract boolean accepts(IObservableValue<?> value);
+
+		abstract void observe(IObservableValue<?> value, PrimitiveObserver observer, boolean observe);
+
+		abstract void copy(IObservableValue<?> from, IObservableValue<?> to);
+	}
+
+	/**
+	 * Propagates changes of the source to the target.
+	 * <p>
+	 * While this observer sets the target, {@link #updatingTarget} tells the observer of the opposite
+	 * direction to ignore the resulting change of the target, so the change does not ping-pong back
+	 * to the source. The observer lists of source and target stay untouched on the update path.
+	 * <p>
+	 * Changes of the source only run the trigger handed out by the {@link IUpdateScheduler} of the
+	 * update strategy, which in turn decides when to run the actual update in {@link #run()}.
+	 * Every change bumps {@link #version}, so an update that finds a newer change once it is done
+	 * converting drops its stale result and leaves the target to the update of the newer change.
+	 * If the update strategy names an apply executor, the result is set on that executor and dropped
+	 * there, if it got stale in the meantime.
+	 * <p>
+	 * The update strategy is compiled into an {@link UpdatePipeline} when the binding is created, so
+	 * validation and conversion steps an {@link UpdateStrategy} does not configure are never called.
+	 */
+	private static class ValueObserver<S, T> implements IValueObserver<S>, Runnable {
 		private final IObservableValue<S> source;
 		private final IObservableValue<T> target;
-		private final IUpdateStrategy<S, T> sourceToTarget;
+		private final UpdatePipeline<S, T> pipeline;
+		private final Runnable trigger;
+		private final Executor applyExecutor;
 		@Setter
-		private IValueObserver<T> targetObserver;
+		private ValueObserver<T, S> targetObserver;
+		private volatile boolean updatingTarget;
+		private volatile boolean bound;
+		private final AtomicInteger version = new AtomicInteger();
+
+		public ValueObserver(final IObservableValue<S> source, final IObservableValue<T> target, final IUpdateStrategy<S, T> sourceToTarget) {
+			this.source = source;
+			this.target = target;
+			pipeline = (sourceToTarget == null) ? null : UpdatePipeline.compile(sourceToTarget);
+			trigger = (sourceToTarget == null) ? null : schedulerOf(sourceToTarget).attach(this);
+			applyExecutor = (sourceToTarget instanceof UpdateStrategy) ? ((UpdateStrategy<?, ?>) sourceToTarget).getApplyExecutor() : null;
+		}
+
+		private static IUpdateScheduler schedulerOf(final IUpdateStrategy<?, ?> strategy) {
+			if (strategy instanceof UpdateStrategy) {
+				return ((UpdateStrategy<?, ?>) strategy).getScheduler();
+			}
+			return ImmediateScheduler.INSTANCE;
+		}
 
 		@Override
 		public void valueChanged(final S value, final S oldValue) {
-			final S s = source.get();
-			if (sourceToTarget != null) {
-				final IValidationResult resultAfterGet = sourceToTarget.validateAfterGet(s);
-				if (isOk(resultAfterGet)) {
-					final T t = sourceToTarget.convert(s);
-					final IValidationResult resultBeforeSet = sourceToTarget.validateBeforeSet(t);
-					if (isOk(resultBeforeSet)) {
-						target.removeObserver(targetObserver);
-						sourceToTarget.doSet(target, t);
-						target.addObserver(targetObserver, false);
+			if (targetObserver.updatingTarget || (trigger == null)) return;
+			version.incrementAndGet();
+			trigger.run();
+		}
+
+		@Override
+		public void run() {
+			if (!bound) return;
+			final int updateVersion = version.get();
+			if (pipeline != null) {
+				final Object t = pipeline.apply(source.get());
+				if ((t != UpdatePipeline.REJECTED) && (updateVersion == version.get())) {
+					if (applyExecutor == null) {
+						apply(t, updateVersion);
+					} else {
+						applyExecutor.execute(new Runnable() {
+							@Override
+							public void run() {
+								apply(t, updateVersion);
+							}
+						});
 					}
 				}
 			}
 		}
 
-		private boolean isOk(final IValidationResult status) {
-			return IValidationResult.Type.OK.equals(status.getType());
+		private void apply(final Object t, final int updateVersion) {
+			if (!bound || (updateVersion != version.get())) return;
+			updatingTarget = true;
+			try {
+				pipeline.set(target, t);
+			} finally {
+				updatingTarget = false;
+			}
 		}
 	}
 
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.fips.util.tinybinding.IUpdateScheduler;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs the updates of a binding on an {@link Executor}, at most one at a time, and folds all changes
+ * that arrive while an update is pending or running into a single follow-up update.
+ *
+ * @author Philipp Eichhorn
+ */
+@RequiredArgsConstructor
+public final class CoalescingScheduler implements IUpdateScheduler {
+	@NonNull
+	private final Executor executor;
+
+	@Override
+	public Runnable attach(final Runnable update) {
+		return new Trigger(executor, update);
+	}
+
+	@RequiredArgsConstructor
+	private static class Trigger implements Runnable {
+		private final Executor executor;
+		private final Runnable update;
+		private final AtomicInteger requests = new AtomicInteger();
+		private final Runnable drain = new Runnable() {
+			@Override
+			public void run() {
+				final int seen = requests.get();
+				try {
+					update.run();
+				} finally {
+					if (requests.addAndGet(-seen) != 0) {
+						submit();
+					}
+				}
+			}
+		};
+
+		@Override
+		public void run() {
+			if (requests.getAndIncrement() == 0) {
+				submit();
+			}
+		}
+
+		private void submit() {
+			try {
+				executor.execute(drain);
+			} catch (RuntimeException e) {
+				requests.set(0);
+				throw e;
+			}
+		}
+	}
+}
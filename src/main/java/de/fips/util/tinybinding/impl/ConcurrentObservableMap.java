@@ -0,0 +1,491 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.fips.util.tinybinding.IMapObserver;
+import de.fips.util.tinybinding.IObservableConcurrentMap;
+import de.fips.util.tinybinding.IObservableValue;
+import de.fips.util.tinybinding.util.Cast;
+
+/**
+ * {@link IObservableConcurrentMap} on top of a {@link ConcurrentMap}, that reports the true previous value
+ * of every change, even if many threads change the same key.
+ * <p>
+ * Keys are spread over a fixed number of stripes. A change of a key happens under the lock of its stripe
+ * and queues its event there, so the events of a key are delivered in the order the changes happened.
+ * Events are delivered after the lock is released, by one thread per stripe at a time; changes of keys in
+ * different stripes neither wait for each other nor for each other's observers. The observers of
+ * {@link #observeKey(Object)} get the events of their key only, in the same order.
+ * <p>
+ * {@link #putAll(Map)} and {@link #clear()} change the keys of each stripe under its lock at once and notify
+ * each observer with at most one bulk event per stripe and kind of change. They are not atomic across
+ * stripes, just like the bulk operations of {@link ConcurrentMap ConcurrentMaps}. Reads go straight to the
+ * backing map. Like {@link ConcurrentMap ConcurrentMaps} in general, this map does not allow {@code null}
+ * keys or values.
+ * <p>
+ * If observers throw, the event is still delivered to all other observers, then the first exception is
+ * rethrown by the delivering thread. Events that other threads queued meanwhile are delivered with the
+ * next change of their stripe.
+ *
+ * @author Philipp Eichhorn
+ */
+public class ConcurrentObservableMap<KEY, VALUE> extends AbstractMap<KEY, VALUE> implements IObservableConcurrentMap<KEY, VALUE> {
+	private static final int DEFAULT_STRIPES = 16;
+
+	private final ConcurrentMap<KEY, VALUE> map;
+	private final Stripe[] stripes;
+	private final ObserverRegistry<IMapObserver<KEY, VALUE>> registeredObservers = new ObserverRegistry<IMapObserver<KEY, VALUE>>();
+	private final KeyObserverIndex<VALUE> keyObservers = new KeyObserverIndex<VALUE>();
+	private Set<Map.Entry<KEY, VALUE>> entrySet;
+
+	public ConcurrentObservableMap(final ConcurrentMap<KEY, VALUE> map) {
+		this(map, DEFAULT_STRIPES);
+	}
+
+	public ConcurrentObservableMap(final ConcurrentMap<KEY, VALUE> map, final int stripes) {
+		if (stripes < 1) throw new IllegalArgumentException("stripes < 1");
+		this.map = map;
+		this.stripes = new Stripe[stripes];
+		for (int i = 0; i < stripes; i++) {
+			this.stripes[i] = new Stripe();
+		}
+	}
+
+	@Override
+	public VALUE get(final Object key) {
+		return map.get(key);
+	}
+
+	@Override
+	public boolean containsKey(final Object key) {
+		return map.containsKey(key);
+	}
+
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+	@Override
+	public VALUE put(final KEY key, final VALUE value) {
+		checkValue(value);
+		final Stripe stripe = stripeOf(key);
+		final VALUE lastValue;
+		synchronized (stripe) {
+			lastValue = map.put(key, value);
+			stripe.queue(key, lastValue, value, (lastValue == null) ? Kind.ADDED : Kind.CHANGED);
+		}
+		deliver(stripe);
+		return lastValue;
+	}
+
+	@Override
+	public VALUE putIfAbsent(final KEY key, final VALUE value) {
+		checkValue(value);
+		final Stripe stripe = stripeOf(key);
+		final VALUE lastValue;
+		synchronized (stripe) {
+			lastValue = map.putIfAbsent(key, value);
+			if (lastValue == null) stripe.queue(key, null, value, Kind.ADDED);
+		}
+		deliver(stripe);
+		return lastValue;
+	}
+
+	@Override
+	public VALUE replace(final KEY key, final VALUE value) {
+		checkValue(value);
+		final Stripe stripe = stripeOf(key);
+		final VALUE lastValue;
+		synchronized (stripe) {
+			lastValue = map.replace(key, value);
+			if (lastValue != null) stripe.queue(key, lastValue, value, Kind.CHANGED);
+		}
+		deliver(stripe);
+		return lastValue;
+	}
+
+	@Override
+	public boolean replace(final KEY key, final VALUE oldValue, final VALUE newValue) {
+		checkValue(newValue);
+		final Stripe stripe = stripeOf(key);
+		final boolean replaced;
+		synchronized (stripe) {
+			replaced = map.replace(key, oldValue, newValue);
+			if (replaced) stripe.queue(key, oldValue, newValue, Kind.CHANGED);
+		}
+		deliver(stripe);
+		return replaced;
+	}
+
+	@Override
+	public VALUE remove(final Object o) {
+		final Stripe stripe = stripeOf(o);
+		final VALUE value;
+		synchronized (stripe) {
+			value = map.remove(o);
+			if (value != null) stripe.queue(o, value, null, Kind.REMOVED);
+		}
+		deliver(stripe);
+		return value;
+	}
+
+	@Override
+	public boolean remove(final Object o, final Object value) {
+		final Stripe stripe = stripeOf(o);
+		final boolean removed;
+		synchronized (stripe) {
+			removed = map.remove(o, value);
+			if (removed) stripe.queue(o, value, null, Kind.REMOVED);
+		}
+		deliver(stripe);
+		return removed;
+	}
+
+	@Override
+	public void putAll(final Map<? extends KEY, ? extends VALUE> m) {
+		final List<List<Map.Entry<? extends KEY, ? extends VALUE>>> entriesByStripe = new ArrayList<List<Map.Entry<? extends KEY, ? extends VALUE>>>(stripes.length);
+		for (int i = 0; i < stripes.length; i++) {
+			entriesByStripe.add(new ArrayList<Map.Entry<? extends KEY, ? extends VALUE>>());
+		}
+		for (Map.Entry<? extends KEY, ? extends VALUE> entry : m.entrySet()) {
+			checkValue(entry.getValue());
+			entriesByStripe.get(stripeIndexOf(entry.getKey())).add(entry);
+		}
+		for (int i = 0; i < stripes.length; i++) {
+			final List<Map.Entry<? extends KEY, ? extends VALUE>> entries = entriesByStripe.get(i);
+			if (entries.isEmpty()) continue;
+			final Set<Object> addedKeys = new LinkedHashSet<Object>();
+			final Map<Object, Object> lastValues = new LinkedHashMap<Object, Object>();
+			final Map<Object, Object> newValues = new LinkedHashMap<Object, Object>();
+			synchronized (stripes[i]) {
+				for (Map.Entry<? extends KEY, ? extends VALUE> entry : entries) {
+					final VALUE lastValue = map.put(entry.getKey(), entry.getValue());
+					if (lastValue == null) {
+						addedKeys.add(entry.getKey());
+					} else {
+						lastValues.put(entry.getKey(), lastValue);
+					}
+					newValues.put(entry.getKey(), entry.getValue());
+				}
+				stripes[i].events.add(new BulkEvent(Kind.PUT_ALL, addedKeys, lastValues, newValues));
+			}
+		}
+		deliverAll();
+	}
+
+	@Override
+	public void clear() {
+		final List<List<KEY>> keysByStripe = new ArrayList<List<KEY>>(stripes.length);
+		for (int i = 0; i < stripes.length; i++) {
+			keysByStripe.add(new ArrayList<KEY>());
+		}
+		for (KEY key : map.keySet()) {
+			keysByStripe.get(stripeIndexOf(key)).add(key);
+		}
+		for (int i = 0; i < stripes.length; i++) {
+			final List<KEY> keys = keysByStripe.get(i);
+			if (keys.isEmpty()) continue;
+			final Map<Object, Object> entries = new LinkedHashMap<Object, Object>();
+			synchronized (stripes[i]) {
+				for (KEY key : keys) {
+					final VALUE value = map.remove(key);
+					if (value != null) entries.put(key, value);
+				}
+				if (!entries.isEmpty()) {
+					stripes[i].events.add(new BulkEvent(Kind.REMOVE_ALL, Collections.emptySet(), entries, Collections.emptyMap()));
+				}
+			}
+		}
+		deliverAll();
+	}
+
+	@Override
+	public Set<Map.Entry<KEY, VALUE>> entrySet() {
+		Set<Map.Entry<KEY, VALUE>> es = entrySet;
+		return es != null ? es : (entrySet = new EntrySet());
+	}
+
+	@Override
+	public void addObserver(final IMapObserver<KEY, VALUE> observer) {
+		registeredObservers.add(observer);
+	}
+
+	@Override
+	public void removeObserver(final IMapObserver<KEY, VALUE> observer) {
+		registeredObservers.remove(observer);
+	}
+
+	@Override
+	public IObservableValue<VALUE> observeKey(final KEY key) {
+		return new ObservableMapKeyValue<KEY, VALUE>(this, key, keyObservers);
+	}
+
+	private Stripe stripeOf(final Object key) {
+		return stripes[stripeIndexOf(key)];
+	}
+
+	private int stripeIndexOf(final Object key) {
+		int h = key.hashCode();
+		h ^= (h >>> 20) ^ (h >>> 12);
+		h ^= (h >>> 7) ^ (h >>> 4);
+		return (h & 0x7fffffff) % stripes.length;
+	}
+
+	private static void checkValue(final Object value) {
+		if (value == null) throw new NullPointerException();
+	}
+
+	/**
+	 * Delivers the queued events of {@code stripe}, unless another thread already does.
+	 */
+	private void deliver(final Stripe stripe) {
+		if (stripe.pendingDeliveries.getAndIncrement() != 0) return;
+		boolean drained = false;
+		try {
+			int missed = 1;
+			do {
+				while (true) {
+					final Event event;
+					synchronized (stripe) {
+						event = stripe.events.poll();
+					}
+					if (event == null) break;
+					fire(event);
+				}
+				missed = stripe.pendingDeliveries.addAndGet(-missed);
+			} while (missed != 0);
+			drained = true;
+		} finally {
+			if (!drained) stripe.pendingDeliveries.set(0);
+		}
+	}
+
+	/**
+	 * Delivers the queued events of every stripe, then rethrows the first exception of an observer.
+	 */
+	private void deliverAll() {
+		RuntimeException failure = null;
+		for (Stripe stripe : stripes) {
+			try {
+				deliver(stripe);
+			} catch (RuntimeException e) {
+				if (failure == null) failure = e;
+			}
+		}
+		if (failure != null) throw failure;
+	}
+
+	private void fire(final Event event) {
+		if (event instanceof BulkEvent) {
+			fireBulk(event.kind, (BulkEvent) event);
+			return;
+		}
+		final KEY key = Cast.<KEY>uncheckedCast(event.key);
+		final VALUE value = Cast.<VALUE>uncheckedCast(event.value);
+		RuntimeException failure = null;
+		final ObserverRegistry.Snapshot<IMapObserver<KEY, VALUE>> observers = registeredObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IMapObserver<KEY, VALUE> observer = observers.get(i);
+			if (observer == null) continue;
+			try {
+				switch (event.kind) {
+				case ADDED:
+					observer.valueAdded(this, key);
+					break;
+				case CHANGED:
+					observer.valueChanged(this, key, value);
+					break;
+				default:
+					observer.valueRemoved(this, key, value);
+				}
+			} catch (RuntimeException e) {
+				if (failure == null) failure = e;
+			}
+		}
+		final VALUE newValue = Cast.<VALUE>uncheckedCast(event.newValue);
+		try {
+			keyObservers.fire(key, newValue, value);
+		} catch (RuntimeException e) {
+			if (failure == null) failure = e;
+		}
+		if (failure != null) throw failure;
+	}
+
+	private void fireBulk(final Kind kind, final BulkEvent event) {
+		final Set<KEY> addedKeys = Cast.uncheckedCast(Collections.unmodifiableSet(event.addedKeys));
+		final Map<KEY, VALUE> lastValues = Cast.uncheckedCast(Collections.unmodifiableMap(event.lastValues));
+		RuntimeException failure = null;
+		final ObserverRegistry.Snapshot<IMapObserver<KEY, VALUE>> observers = registeredObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IMapObserver<KEY, VALUE> observer = observers.get(i);
+			if (observer == null) continue;
+			try {
+				if (kind == Kind.REMOVE_ALL) {
+					observer.entriesRemoved(this, lastValues);
+				} else {
+					if (!addedKeys.isEmpty()) observer.entriesAdded(this, addedKeys);
+					if (!lastValues.isEmpty()) observer.entriesChanged(this, lastValues);
+				}
+			} catch (RuntimeException e) {
+				if (failure == null) failure = e;
+			}
+		}
+		final Set<Object> keys = (kind == Kind.REMOVE_ALL) ? event.lastValues.keySet() : event.newValues.keySet();
+		for (Object key : keys) {
+			final VALUE newValue = Cast.<VALUE>uncheckedCast(event.newValues.get(key));
+			final VALUE lastValue = Cast.<VALUE>uncheckedCast(event.lastValues.get(key));
+			try {
+				keyObservers.fire(key, newValue, lastValue);
+			} catch (RuntimeException e) {
+				if (failure == null) failure = e;
+			}
+		}
+		if (failure != null) throw failure;
+	}
+
+	private static enum Kind {
+		ADDED, CHANGED, REMOVED, PUT_ALL, REMOVE_ALL;
+	}
+
+	private static class Event {
+		private final Object key;
+		private final Object value;
+		private final Object newValue;
+		private final Kind kind;
+
+		public Event(final Object key, final Object value, final Object newValue, final Kind kind) {
+			this.key = key;
+			this.value = value;
+			this.newValue = newValue;
+			this.kind = kind;
+		}
+	}
+
+	/**
+	 * The changes a bulk operation made to the keys of one stripe.
+	 */
+	private static final class BulkEvent extends Event {
+		private final Set<Object> addedKeys;
+		/** Last values of the changed keys, or the removed entries. */
+		private final Map<Object, Object> lastValues;
+		private final Map<Object, Object> newValues;
+
+		public BulkEvent(final Kind kind, final Set<Object> addedKeys, final Map<Object, Object> lastValues, final Map<Object, Object> newValues) {
+			super(null, null, null, kind);
+			this.addedKeys = addedKeys;
+			this.lastValues = lastValues;
+			this.newValues = newValues;
+		}
+	}
+
+	/**
+	 * Lock and event queue of the keys that hash to it.
+	 */
+	private static final class Stripe {
+		private final Queue<Event> events = new ArrayDeque<Event>();
+		private final AtomicInteger pendingDeliveries = new AtomicInteger();
+
+		/** Called while holding the lock of this stripe. */
+		public void queue(final Object key, final Object value, final Object newValue, final Kind kind) {
+			events.add(new Event(key, value, newValue, kind));
+		}
+	}
+
+	private class EntryIterator implements Iterator<Map.Entry<KEY, VALUE>> {
+		private final Iterator<Map.Entry<KEY, VALUE>> iterator = map.entrySet().iterator();
+		private Map.Entry<KEY, VALUE> last;
+
+		@Override
+		public boolean hasNext() {
+			return iterator.hasNext();
+		}
+
+		@Override
+		public Map.Entry<KEY, VALUE> next() {
+			final Map.Entry<KEY, VALUE> entry = iterator.next();
+			last = new AbstractMap.SimpleImmutableEntry<KEY, VALUE>(entry.getKey(), entry.getValue());
+			return last;
+		}
+
+		@Override
+		public void remove() {
+			if (last == null) {
+				throw new IllegalStateException();
+			}
+			final Map.Entry<KEY, VALUE> toRemove = last;
+			last = null;
+			ConcurrentObservableMap.this.remove(toRemove.getKey(), toRemove.getValue());
+		}
+	}
+
+	private class EntrySet extends AbstractSet<Map.Entry<KEY, VALUE>> {
+		@Override
+		public Iterator<Map.Entry<KEY, VALUE>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public boolean contains(final Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			final Map.Entry<?, ?> e = Cast.uncheckedCast(o);
+			final VALUE value = map.get(e.getKey());
+			return (value != null) && value.equals(e.getValue());
+		}
+
+		@Override
+		public boolean remove(final Object o) {
+			if (o instanceof Map.Entry) {
+				final Map.Entry<?, ?> e = Cast.uncheckedCast(o);
+				return ConcurrentObservableMap.this.remove(e.getKey(), e.getValue());
+			}
+			return false;
+		}
+
+		@Override
+		public int size() {
+			return ConcurrentObservableMap.this.size();
+		}
+
+		@Override
+		public void clear() {
+			ConcurrentObservableMap.this.clear();
+		}
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import de.fips.util.tinybinding.IObservableValue;
+import de.fips.util.tinybinding.IValueObserver;
+
+/**
+ * {@link IObservableValue} that may be set from any number of threads without external locking.
+ * <p>
+ * Every successful {@link #set(Object)} appends the new value to a chain of changes with a single
+ * compare-and-set, so concurrent writers never lose an update and each change knows its true old value.
+ * The chain is delivered to the observers by one thread at a time, in the order the changes got appended:
+ * <ul>
+ * <li>observers are never called concurrently for the same value,</li>
+ * <li>the {@code oldValue} of each notification is the {@code value} of the notification before,</li>
+ * <li>the changes of any one thread are notified in the order that thread made them.</li>
+ * </ul>
+ * The thread that delivers is the one that finds no other delivery in progress, so {@link #set(Object)} may
+ * return before its change was delivered by another thread. An observer that sets the value again does not
+ * recurse, its change is delivered right after the current one. Changes are not deferred by
+ * {@link Transaction batches}.
+ * <p>
+ * Observers added with {@code emitValueChanged} get registered and receive the current value by the delivering
+ * thread as well, between two changes, so the guarantees above include their first notification. Like
+ * {@link #set(Object)}, {@link #addObserver(IValueObserver, boolean)} may return before that happened.
+ * <p>
+ * If observers throw, the delivery goes on with all other observers and changes, then the first exception is
+ * rethrown by the delivering thread.
+ *
+ * @author Philipp Eichhorn
+ */
+public class ConcurrentObservableValue<TYPE> implements IObservableValue<TYPE> {
+	private final AtomicReference<Change<TYPE>> current;
+	private final AtomicInteger pendingDeliveries = new AtomicInteger();
+	private final ObserverRegistry<IValueObserver<TYPE>> registeredObservers = new ObserverRegistry<IValueObserver<TYPE>>();
+	private final Queue<IValueObserver<TYPE>> pendingObservers = new ConcurrentLinkedQueue<IValueObserver<TYPE>>();
+	/** Last delivered change, only touched by the delivering thread. */
+	private Change<TYPE> delivered;
+
+	public ConcurrentObservableValue(final TYPE value) {
+		delivered = new Change<TYPE>(value);
+		current = new AtomicReference<Change<TYPE>>(delivered);
+	}
+
+	@Override
+	public TYPE get() {
+		return current.get().value;
+	}
+
+	@Override
+	public final boolean set(final TYPE value) {
+		final Change<TYPE> change = new Change<TYPE>(value);
+		while (true) {
+			final Change<TYPE> previous = current.get();
+			if (!isChanged(value, previous.value)) return false;
+			if (current.compareAndSet(previous, change)) {
+				previous.next = change;
+				deliver();
+				return true;
+			}
+		}
+	}
+
+	private static boolean isChanged(final Object value, final Object oldValue) {
+		return (value == null) ? (oldValue != null) : !value.equals(oldValue);
+	}
+
+	private void deliver() {
+		if (pendingDeliveries.getAndIncrement() != 0) return;
+		RuntimeException failure = null;
+		boolean drained = false;
+		try {
+			int missed = 1;
+			do {
+				failure = registerPendingObservers(failure);
+				Change<TYPE> next;
+				while ((next = delivered.next) != null) {
+					final Change<TYPE> last = delivered;
+					delivered = next;
+					failure = notifyObserver(next.value, last.value, failure);
+					failure = registerPendingObservers(failure);
+				}
+				missed = pendingDeliveries.addAndGet(-missed);
+			} while (missed != 0);
+			drained = true;
+		} finally {
+			if (!drained) pendingDeliveries.set(0);
+		}
+		if (failure != null) throw failure;
+	}
+
+	private RuntimeException notifyObserver(final TYPE newValue, final TYPE oldValue, RuntimeException failure) {
+		final ObserverRegistry.Snapshot<IValueObserver<TYPE>> observers = registeredObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IValueObserver<TYPE> observer = observers.get(i);
+			if (observer == null) continue;
+			try {
+				observer.valueChanged(newValue, oldValue);
+			} catch (RuntimeException e) {
+				if (failure == null) failure = e;
+			}
+		}
+		return failure;
+	}
+
+	private RuntimeException registerPendingObservers(RuntimeException failure) {
+		IValueObserver<TYPE> observer;
+		while ((observer = pendingObservers.poll()) != null) {
+			registeredObservers.add(observer);
+			try {
+				observer.valueChanged(delivered.value, null);
+			} catch (RuntimeException e) {
+				if (failure == null) failure = e;
+			}
+		}
+		return failure;
+	}
+
+	@Override
+	public final void addObserver(final IValueObserver<TYPE> observer) {
+		addObserver(observer, true);
+	}
+
+	@Override
+	public final void addObserver(final IValueObserver<TYPE> observer, final boolean emitValueChanged) {
+		if (emitValueChanged) {
+			pendingObservers.add(observer);
+			deliver();
+		} else {
+			registeredObservers.add(observer);
+		}
+	}
+
+	@Override
+	public final void removeObserver(final IValueObserver<TYPE> observer) {
+		pendingObservers.remove(observer);
+		registeredObservers.remove(observer);
+	}
+
+	@Override
+	public String toString() {
+		return "ConcurrentObservableValue(value=" + get() + ")";
+	}
+
+	private static final class Change<TYPE> {
+		private final TYPE value;
+		private volatile Change<TYPE> next;
+
+		public Change(final TYPE value) {
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import de.fips.util.tinybinding.IUpdateScheduler;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs the update of a binding once its source has been quiet for the given period.
+ * Every change of the source restarts the period.
+ * <p>
+ * The scheduler only keeps the time, the update itself runs on the executor, one at a time.
+ *
+ * @author Philipp Eichhorn
+ */
+@RequiredArgsConstructor
+public final class DebounceScheduler implements IUpdateScheduler {
+	@NonNull
+	private final ScheduledExecutorService scheduler;
+	@NonNull
+	private final Executor executor;
+	private final long quietPeriod;
+	@NonNull
+	private final TimeUnit unit;
+
+	@Override
+	public Runnable attach(final Runnable update) {
+		return new Trigger(new CoalescingScheduler(executor).attach(update));
+	}
+
+	@RequiredArgsConstructor
+	private class Trigger implements Runnable {
+		private final Runnable update;
+		private ScheduledFuture<?> pending;
+
+		@Override
+		public synchronized void run() {
+			if (pending != null) {
+				pending.cancel(false);
+			}
+			pending = scheduler.schedule(update, quietPeriod, unit);
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.fips.util.tinybinding.IConverter;
+import de.fips.util.tinybinding.IObservableList;
+
+/**
+ * Live view that contains the elements of its source list for which the predicate returns {@code true}.
+ * <p>
+ * The view remembers which source elements got accepted, so each source event evaluates the predicate
+ * only for the added or replaced elements.
+ *
+ * @author Philipp Eichhorn
+ */
+final class FilteredObservableList<ELEMENT> extends ObservableListView<ELEMENT, ELEMENT> {
+	private final IConverter<? super ELEMENT, Boolean> predicate;
+	private final List<Boolean> accepted = new ArrayList<Boolean>();
+
+	public FilteredObservableList(final IObservableList<ELEMENT> source, final IConverter<? super ELEMENT, Boolean> predicate) {
+		super(source);
+		this.predicate = predicate;
+		valuesAdded(source, 0, source.size());
+		observeSource();
+	}
+
+	@Override
+	protected void valuesAdded(final IObservableList<ELEMENT> list, final int index, final int length) {
+		final List<ELEMENT> elements = new ArrayList<ELEMENT>();
+		final List<Boolean> flags = new ArrayList<Boolean>(length);
+		for (int i = index; i < index + length; i++) {
+			final ELEMENT element = source.get(i);
+			final boolean accept = accepts(element);
+			flags.add(Boolean.valueOf(accept));
+			if (accept) elements.add(element);
+		}
+		accepted.addAll(index, flags);
+		viewAddAll(viewIndex(index), elements);
+	}
+
+	@Override
+	protected void valuesRemoved(final IObservableList<ELEMENT> list, final int index, final List<ELEMENT> oldElements) {
+		final int viewIndex = viewIndex(index);
+		final List<Boolean> flags = accepted.subList(index, index + oldElements.size());
+		final int removed = count(flags);
+		flags.clear();
+		viewRemoveRange(viewIndex, viewIndex + removed);
+	}
+
+	@Override
+	protected void valueReplaced(final IObservableList<ELEMENT> list, final int index, final ELEMENT oldElement) {
+		final ELEMENT element = source.get(index);
+		final boolean wasAccepted = accepted.get(index).booleanValue();
+		final boolean accept = accepts(element);
+		accepted.set(index, Boolean.valueOf(accept));
+		final int viewIndex = viewIndex(index);
+		if (wasAccepted && accept) {
+			viewSet(viewIndex, element);
+		} else if (wasAccepted) {
+			viewRemove(viewIndex);
+		} else if (accept) {
+			viewAdd(viewIndex, element);
+		}
+	}
+
+	private boolean accepts(final ELEMENT element) {
+		return Boolean.TRUE.equals(predicate.convert(element));
+	}
+
+	private int viewIndex(final int sourceIndex) {
+		return count(accepted.subList(0, sourceIndex));
+	}
+
+	private static int count(final List<Boolean> flags) {
+		int count = 0;
+		for (Boolean flag : flags) {
+			if (flag.booleanValue()) count++;
+		}
+		return count;
+	}
+}
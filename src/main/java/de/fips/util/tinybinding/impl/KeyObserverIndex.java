@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import de.fips.util.tinybinding.IValueObserver;
+
+/**
+ * Index from the keys of an observable map to the observers of the values returned by its
+ * {@link de.fips.util.tinybinding.IObservableMap#observeKey(Object) observeKey}, so a change of a key only
+ * reaches the observers of that key.
+ * <p>
+ * Keys without observers are dropped from the index. Lookups do not lock, so the index can be used by
+ * maps that are changed from many threads.
+ *
+ * @author Philipp Eichhorn
+ */
+final class KeyObserverIndex<VALUE> {
+	private static final Object NULL_KEY = new Object();
+
+	private final ConcurrentMap<Object, ObserverRegistry<IValueObserver<VALUE>>> registries = new ConcurrentHashMap<Object, ObserverRegistry<IValueObserver<VALUE>>>();
+
+	public boolean isEmpty() {
+		return registries.isEmpty();
+	}
+
+	public synchronized void add(final Object key, final IValueObserver<VALUE> observer) {
+		final Object indexKey = indexKey(key);
+		ObserverRegistry<IValueObserver<VALUE>> registry = registries.get(indexKey);
+		if (registry == null) {
+			registry = new ObserverRegistry<IValueObserver<VALUE>>();
+			registries.put(indexKey, registry);
+		}
+		registry.add(observer);
+	}
+
+	public synchronized void remove(final Object key, final IValueObserver<VALUE> observer) {
+		final Object indexKey = indexKey(key);
+		final ObserverRegistry<IValueObserver<VALUE>> registry = registries.get(indexKey);
+		if ((registry != null) && registry.remove(observer) && registry.isEmpty()) {
+			registries.remove(indexKey);
+		}
+	}
+
+	/**
+	 * Notifies the observers of {@code key}, if its value actually changed. If observers throw, the others
+	 * are still notified, then the first exception is rethrown.
+	 */
+	public void fire(final Object key, final VALUE value, final VALUE oldValue) {
+		if (registries.isEmpty()) return;
+		final ObserverRegistry<IValueObserver<VALUE>> registry = registries.get(indexKey(key));
+		if ((registry == null) || !isChanged(value, oldValue)) return;
+		RuntimeException failure = null;
+		final ObserverRegistry.Snapshot<IValueObserver<VALUE>> observers = registry.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IValueObserver<VALUE> observer = observers.get(i);
+			if (observer == null) continue;
+			try {
+				observer.valueChanged(value, oldValue);
+			} catch (RuntimeException e) {
+				if (failure == null) failure = e;
+			}
+		}
+		if (failure != null) throw failure;
+	}
+
+	private static Object indexKey(final Object key) {
+		return (key == null) ? NULL_KEY : key;
+	}
+
+	private static boolean isChanged(final Object value, final Object oldValue) {
+		return (value == null) ? (oldValue != null) : !value.equals(oldValue);
+	}
+}
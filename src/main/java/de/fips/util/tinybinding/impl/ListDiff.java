@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Computes the hunks that turn one list into another, using the common prefix and suffix of both lists and
+ * Myers' O(ND) difference algorithm for the region in between.
+ * <p>
+ * Each hunk is an {@code int[] { oldIndex, oldLength, newIndex, newLength }}, hunks come in ascending order.
+ * When the lists differ in more than {@link #MAX_EDITS} elements, the region between prefix and suffix
+ * becomes a single hunk.
+ *
+ * @author Philipp Eichhorn
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ListDiff {
+	static final int MAX_EDITS = 1024;
+
+	static List<int[]> diff(final List<?> oldList, final List<?> newList) {
+		int start = 0;
+		int oldEnd = oldList.size();
+		int newEnd = newList.size();
+		while ((start < oldEnd) && (start < newEnd) && isEqual(oldList.get(start), newList.get(start))) {
+			start++;
+		}
+		while ((oldEnd > start) && (newEnd > start) && isEqual(oldList.get(oldEnd - 1), newList.get(newEnd - 1))) {
+			oldEnd--;
+			newEnd--;
+		}
+		final List<int[]> hunks = new ArrayList<int[]>();
+		if ((start == oldEnd) || (start == newEnd)) {
+			if ((start != oldEnd) || (start != newEnd)) {
+				hunks.add(new int[] { start, oldEnd - start, start, newEnd - start });
+			}
+		} else if (!myers(oldList, newList, start, oldEnd - start, newEnd - start, hunks)) {
+			hunks.clear();
+			hunks.add(new int[] { start, oldEnd - start, start, newEnd - start });
+		}
+		return hunks;
+	}
+
+	private static boolean myers(final List<?> oldList, final List<?> newList, final int offset, final int n, final int m, final List<int[]> hunks) {
+		if (Math.abs(n - m) > MAX_EDITS) return false;
+		final int max = Math.min(n + m, MAX_EDITS);
+		final int origin = max + 1;
+		final List<int[]> trace = new ArrayList<int[]>();
+		int[] v = new int[2 * max + 3];
+		for (int d = 0; d <= max; d++) {
+			trace.add(v.clone());
+			for (int k = -d; k <= d; k += 2) {
+				int x;
+				if ((k == -d) || ((k != d) && (v[origin + k - 1] < v[origin + k + 1]))) {
+					x = v[origin + k + 1];
+				} else {
+					x = v[origin + k - 1] + 1;
+				}
+				int y = x - k;
+				while ((x < n) && (y < m) && isEqual(oldList.get(offset + x), newList.get(offset + y))) {
+					x++;
+					y++;
+				}
+				v[origin + k] = x;
+				if ((x >= n) && (y >= m)) {
+					backtrack(trace, origin, offset, n, m, hunks);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static void backtrack(final List<int[]> trace, final int origin, final int offset, final int n, final int m, final List<int[]> hunks) {
+		final int[] matches = new int[2 * Math.min(n, m)];
+		int matchCount = 0;
+		int x = n;
+		int y = m;
+		for (int d = trace.size() - 1; d >= 0; d--) {
+			final int[] v = trace.get(d);
+			final int k = x - y;
+			final int previousK = ((k == -d) || ((k != d) && (v[origin + k - 1] < v[origin + k + 1]))) ? k + 1 : k - 1;
+			final int previousX = (d == 0) ? 0 : v[origin + previousK];
+			final int previousY = (d == 0) ? 0 : previousX - previousK;
+			while ((x > previousX) && (y > previousY)) {
+				x--;
+				y--;
+				matches[matchCount++] = x;
+				matches[matchCount++] = y;
+			}
+			x = previousX;
+			y = previousY;
+		}
+		int oldIndex = 0;
+		int newIndex = 0;
+		for (int i = matchCount - 2; i >= -2; i -= 2) {
+			final int matchX = (i < 0) ? n : matches[i];
+			final int matchY = (i < 0) ? m : matches[i + 1];
+			if ((matchX > oldIndex) || (matchY > newIndex)) {
+				hunks.add(new int[] { offset + oldIndex, matchX - oldIndex, offset + newIndex, matchY - newIndex });
+			}
+			oldIndex = matchX + 1;
+			newIndex = matchY + 1;
+		}
+	}
+
+	private static boolean isEqual(final Object a, final Object b) {
+		return (a == b) || ((a != null) && a.equals(b));
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.fips.util.tinybinding.IConverter;
+import de.fips.util.tinybinding.IObservableList;
+
+/**
+ * Live view that converts each element of its source list.
+ * <p>
+ * Each source event converts only the added or replaced elements and is reported as the same event by the view.
+ *
+ * @author Philipp Eichhorn
+ */
+final class MappedObservableList<SOURCE, ELEMENT> extends ObservableListView<SOURCE, ELEMENT> {
+	private final IConverter<? super SOURCE, ? extends ELEMENT> converter;
+
+	public MappedObservableList(final IObservableList<SOURCE> source, final IConverter<? super SOURCE, ? extends ELEMENT> converter) {
+		super(source);
+		this.converter = converter;
+		viewAddAll(0, convert(0, source.size()));
+		observeSource();
+	}
+
+	@Override
+	protected void valuesAdded(final IObservableList<SOURCE> list, final int index, final int length) {
+		viewAddAll(index, convert(index, index + length));
+	}
+
+	@Override
+	protected void valuesRemoved(final IObservableList<SOURCE> list, final int index, final List<SOURCE> oldElements) {
+		viewRemoveRange(index, index + oldElements.size());
+	}
+
+	@Override
+	protected void valueReplaced(final IObservableList<SOURCE> list, final int index, final SOURCE oldElement) {
+		viewSet(index, converter.convert(source.get(index)));
+	}
+
+	private List<ELEMENT> convert(final int fromIndex, final int toIndex) {
+		final List<ELEMENT> elements = new ArrayList<ELEMENT>(toIndex - fromIndex);
+		for (int i = fromIndex; i < toIndex; i++) {
+			elements.add(converter.convert(source.get(i)));
+		}
+		return elements;
+	}
+}
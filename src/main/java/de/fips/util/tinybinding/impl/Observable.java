@@ -21,18 +21,29 @@
  */
 package de.fips.util.tinybinding.impl;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
+import de.fips.util.tinybinding.IConverter;
+import de.fips.util.tinybinding.IObservableBoolean;
+import de.fips.util.tinybinding.IObservableConcurrentMap;
+import de.fips.util.tinybinding.IObservableDouble;
+import de.fips.util.tinybinding.IObservableInt;
+import de.fips.util.tinybinding.IObservableLong;
 import de.fips.util.tinybinding.IObservableList;
+import de.fips.util.tinybinding.IObservableListView;
 import de.fips.util.tinybinding.IObservableMap;
+import de.fips.util.tinybinding.IObservableSet;
 import de.fips.util.tinybinding.IObservableValue;
 
 import lombok.RequiredArgsConstructor;
 
 /**
- * Creates new {@link ObservableValue ObservableValues}, {@link ObservableMap ObservableMaps} and
- * {@link ObservableList ObservableLists} for just about anything.
+ * Creates new {@link ObservableValue ObservableValues}, {@link ObservableMap ObservableMaps},
+ * {@link ObservableList ObservableLists} and {@link ObservableSet ObservableSets} for just about anything.
  *
  * @author Philipp Eichhorn
  */
@@ -42,14 +53,77 @@ public class Observable {
 		return new ObservableMap<KEY, VALUE>(map);
 	}
 
+	/**
+	 * Returns a map that can be changed from any thread, see {@link ConcurrentObservableMap} for the order
+	 * in which its observers are notified.
+	 */
+	public <KEY, VALUE> IObservableConcurrentMap<KEY, VALUE> concurrentMap(final ConcurrentMap<KEY, VALUE> map) {
+		return new ConcurrentObservableMap<KEY, VALUE>(map);
+	}
+
 	public <ELEMENT> IObservableList<ELEMENT> list(final List<ELEMENT> list) {
 		return new ObservableList<ELEMENT>(list);
 	}
 
+	public <ELEMENT> IObservableSet<ELEMENT> set(final Set<ELEMENT> set) {
+		return new ObservableSet<ELEMENT>(set);
+	}
+
+	/**
+	 * Returns a read-only view of {@code list} that contains only the elements accepted by {@code predicate}.
+	 * <p>
+	 * The view is updated incrementally and stays registered at {@code list} until it gets disposed.
+	 */
+	public <ELEMENT> IObservableListView<ELEMENT> filtered(final IObservableList<ELEMENT> list, final IConverter<? super ELEMENT, Boolean> predicate) {
+		return new FilteredObservableList<ELEMENT>(list, predicate);
+	}
+
+	/**
+	 * Returns a read-only view of {@code list} that is kept sorted by {@code comparator}.
+	 * <p>
+	 * The view is updated incrementally and stays registered at {@code list} until it gets disposed.
+	 */
+	public <ELEMENT> IObservableListView<ELEMENT> sorted(final IObservableList<ELEMENT> list, final Comparator<? super ELEMENT> comparator) {
+		return new SortedObservableList<ELEMENT>(list, comparator);
+	}
+
+	/**
+	 * Returns a read-only view of {@code list} that contains the elements converted by {@code converter}.
+	 * <p>
+	 * The view is updated incrementally and stays registered at {@code list} until it gets disposed.
+	 */
+	public <SOURCE, ELEMENT> IObservableListView<ELEMENT> mapped(final IObservableList<SOURCE> list, final IConverter<? super SOURCE, ? extends ELEMENT> converter) {
+		return new MappedObservableList<SOURCE, ELEMENT>(list, converter);
+	}
+
 	public <TYPE> IObservableValue<TYPE> value(final TYPE value) {
 		return new ObservableValue<TYPE>(value);
 	}
 
+	/**
+	 * Returns a value that can be set from any thread, see {@link ConcurrentObservableValue} for the order
+	 * in which its observers are notified.
+	 */
+	public <TYPE> IObservableValue<TYPE> concurrentValue(final TYPE value) {
+		return new ConcurrentObservableValue<TYPE>(value);
+	}
+
+	public IObservableInt intValue(final int value) {
+		return new ObservableInt(value);
+	}
+
+	public IObservableLong longValue(final long value) {
+		return new ObservableLong(value);
+	}
+
+	public IObservableDouble doubleValue(final double value) {
+		return new ObservableDouble(value);
+	}
+
+	public IObservableBoolean booleanValue(final boolean value) {
+		return new ObservableBoolean(value);
+	}
+
 	public <TYPE> IObservableValue<TYPE> nil() {
 		return new ObservableValue<TYPE>();
 	}
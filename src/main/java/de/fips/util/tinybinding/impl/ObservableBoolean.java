@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import de.fips.util.tinybinding.IBooleanValueObserver;
+import de.fips.util.tinybinding.IObservableBoolean;
+
+import lombok.ToString;
+
+/**
+ * Observable {@code boolean}, that compares and notifies its {@link IBooleanValueObserver IBooleanValueObservers}
+ * without boxing.
+ *
+ * @author Philipp Eichhorn
+ */
+@ToString(of = "value")
+public class ObservableBoolean extends PrimitiveObservableValue<Boolean> implements IObservableBoolean {
+	private boolean value;
+	private final ObserverRegistry<IBooleanValueObserver> registeredBooleanObservers = new ObserverRegistry<IBooleanValueObserver>();
+
+	public ObservableBoolean(final boolean value) {
+		this.value = value;
+	}
+
+	@Override
+	public boolean getBoolean() {
+		return value;
+	}
+
+	@Override
+	public Boolean get() {
+		return Boolean.valueOf(value);
+	}
+
+	@Override
+	public final boolean set(final Boolean value) {
+		return setBoolean(value.booleanValue());
+	}
+
+	@Override
+	public final boolean setBoolean(final boolean value) {
+		if (value == this.value) return false;
+		final boolean oldValue = this.value;
+		this.value = value;
+		if (!Transaction.isActive() || !Transaction.defer(this, Boolean.valueOf(oldValue))) {
+			notifyObserver(value, oldValue);
+		}
+		return true;
+	}
+
+	@Override
+	final void notifyIfChanged(final Boolean oldValue) {
+		if (oldValue.booleanValue() != value) {
+			notifyObserver(value, oldValue.booleanValue());
+		}
+	}
+
+	protected final void notifyObserver(final boolean newValue, final boolean oldValue) {
+		final ObserverRegistry.Snapshot<IBooleanValueObserver> observers = registeredBooleanObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IBooleanValueObserver observer = observers.get(i);
+			if (observer != null) observer.valueChanged(newValue, oldValue);
+		}
+		if (hasBoxedObservers()) {
+			notifyBoxedObserver(Boolean.valueOf(newValue), Boolean.valueOf(oldValue));
+		}
+	}
+
+	@Override
+	public final void addBooleanObserver(final IBooleanValueObserver observer) {
+		registeredBooleanObservers.add(observer);
+	}
+
+	@Override
+	public final void removeBooleanObserver(final IBooleanValueObserver observer) {
+		registeredBooleanObservers.remove(observer);
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import de.fips.util.tinybinding.IDoubleValueObserver;
+import de.fips.util.tinybinding.IObservableDouble;
+
+import lombok.ToString;
+
+/**
+ * Observable {@code double}, that compares and notifies its {@link IDoubleValueObserver IDoubleValueObservers}
+ * without boxing.
+ *
+ * @author Philipp Eichhorn
+ */
+@ToString(of = "value")
+public class ObservableDouble extends PrimitiveObservableValue<Double> implements IObservableDouble {
+	private double value;
+	private final ObserverRegistry<IDoubleValueObserver> registeredDoubleObservers = new ObserverRegistry<IDoubleValueObserver>();
+
+	public ObservableDouble(final double value) {
+		this.value = value;
+	}
+
+	@Override
+	public double getDouble() {
+		return value;
+	}
+
+	@Override
+	public Double get() {
+		return Double.valueOf(value);
+	}
+
+	@Override
+	public final boolean set(final Double value) {
+		return setDouble(value.doubleValue());
+	}
+
+	@Override
+	public final boolean setDouble(final double value) {
+		if (isEqual(value, this.value)) return false;
+		final double oldValue = this.value;
+		this.value = value;
+		if (!Transaction.isActive() || !Transaction.defer(this, Double.valueOf(oldValue))) {
+			notifyObserver(value, oldValue);
+		}
+		return true;
+	}
+
+	@Override
+	final void notifyIfChanged(final Double oldValue) {
+		if (!(isEqual(oldValue.doubleValue(), value))) {
+			notifyObserver(value, oldValue.doubleValue());
+		}
+	}
+
+	protected final void notifyObserver(final double newValue, final double oldValue) {
+		final ObserverRegistry.Snapshot<IDoubleValueObserver> observers = registeredDoubleObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IDoubleValueObserver observer = observers.get(i);
+			if (observer != null) observer.valueChanged(newValue, oldValue);
+		}
+		if (hasBoxedObservers()) {
+			notifyBoxedObserver(Double.valueOf(newValue), Double.valueOf(oldValue));
+		}
+	}
+
+	@Override
+	public final void addDoubleObserver(final IDoubleValueObserver observer) {
+		registeredDoubleObservers.add(observer);
+	}
+
+	@Override
+	public final void removeDoubleObserver(final IDoubleValueObserver observer) {
+		registeredDoubleObservers.remove(observer);
+	}
+
+	/**
+	 * Like {@link Double#equals(Object)}, so {@code NaN} equals itself and {@code 0.0} differs from {@code -0.0}.
+	 */
+	private static boolean isEqual(final double value, final double oldValue) {
+		return Double.doubleToLongBits(value) == Double.doubleToLongBits(oldValue);
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import de.fips.util.tinybinding.IIntValueObserver;
+import de.fips.util.tinybinding.IObservableInt;
+
+import lombok.ToString;
+
+/**
+ * Observable {@code int}, that compares and notifies its {@link IIntValueObserver IIntValueObservers}
+ * without boxing.
+ *
+ * @author Philipp Eichhorn
+ */
+@ToString(of = "value")
+public class ObservableInt extends PrimitiveObservableValue<Integer> implements IObservableInt {
+	private int value;
+	private final ObserverRegistry<IIntValueObserver> registeredIntObservers = new ObserverRegistry<IIntValueObserver>();
+
+	public ObservableInt(final int value) {
+		this.value = value;
+	}
+
+	@Override
+	public int getInt() {
+		return value;
+	}
+
+	@Override
+	public Integer get() {
+		return Integer.valueOf(value);
+	}
+
+	@Override
+	public final boolean set(final Integer value) {
+		return setInt(value.intValue());
+	}
+
+	@Override
+	public final boolean setInt(final int value) {
+		if (value == this.value) return false;
+		final int oldValue = this.value;
+		this.value = value;
+		if (!Transaction.isActive() || !Transaction.defer(this, Integer.valueOf(oldValue))) {
+			notifyObserver(value, oldValue);
+		}
+		return true;
+	}
+
+	@Override
+	final void notifyIfChanged(final Integer oldValue) {
+		if (oldValue.intValue() != value) {
+			notifyObserver(value, oldValue.intValue());
+		}
+	}
+
+	protected final void notifyObserver(final int newValue, final int oldValue) {
+		final ObserverRegistry.Snapshot<IIntValueObserver> observers = registeredIntObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IIntValueObserver observer = observers.get(i);
+			if (observer != null) observer.valueChanged(newValue, oldValue);
+		}
+		if (hasBoxedObservers()) {
+			notifyBoxedObserver(Integer.valueOf(newValue), Integer.valueOf(oldValue));
+		}
+	}
+
+	@Override
+	public final void addIntObserver(final IIntValueObserver observer) {
+		registeredIntObservers.add(observer);
+	}
+
+	@Override
+	public final void removeIntObserver(final IIntValueObserver observer) {
+		registeredIntObservers.remove(observer);
+	}
+}
@@ -21,13 +21,17 @@
  */
 package de.fips.util.tinybinding.impl;
 
+import static de.fips.util.tinybinding.util.Cast.uncheckedCast;
+
 import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 
+import de.fips.util.tinybinding.IConverter;
 import de.fips.util.tinybinding.IListObserver;
 import de.fips.util.tinybinding.IObservableList;
 
@@ -40,14 +44,12 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ObservableList<ELEMENT> extends AbstractList<ELEMENT> implements IObservableList<ELEMENT> {
 	private final List<ELEMENT> list;
-	private final List<IListObserver<ELEMENT>> registeredObservers = new CopyOnWriteArrayList<IListObserver<ELEMENT>>();
+	private final ObserverRegistry<IListObserver<ELEMENT>> registeredObservers = new ObserverRegistry<IListObserver<ELEMENT>>();
 
 	@Override
 	public ELEMENT set(final int index, final ELEMENT element) {
 		ELEMENT oldValue = list.set(index, element);
-		for (IListObserver<ELEMENT> observer : registeredObservers) {
-			observer.valueReplaced(this, index, oldValue);
-		}
+		fireValueReplaced(index, oldValue);
 		return oldValue;
 	}
 
@@ -55,18 +57,14 @@ public class ObservableList<ELEMENT> extends AbstractList<ELEMENT> implements IO
 	public void add(final int index, final ELEMENT element) {
 		list.add(index, element);
 		modCount++;
-		for (IListObserver<ELEMENT> observer : registeredObservers) {
-			observer.valuesAdded(this, index, 1);
-		}
+		fireValuesAdded(index, 1);
 	}
 
 	@Override
 	public ELEMENT remove(final int index) {
 		ELEMENT oldValue = list.remove(index);
 		modCount++;
-		for (IListObserver<ELEMENT> observer : registeredObservers) {
-			observer.valuesRemoved(this, index, Collections.singletonList(oldValue));
-		}
+		fireValuesRemoved(index, Collections.singletonList(oldValue));
 		return oldValue;
 	}
 
@@ -77,15 +75,25 @@ public class ObservableList<ELEMENT> extends AbstractList<ELEMENT> implements IO
 
 	@Override
 	public boolean addAll(final int index, final Collection<? extends ELEMENT> c) {
+		final int oldSize = list.size();
 		if (list.addAll(index, c)) {
 			modCount++;
-			for (IListObserver<ELEMENT> observer : registeredObservers) {
-				observer.valuesAdded(this, index, c.size());
-			}
+			fireValuesAdded(index, list.size() - oldSize);
+			return true;
 		}
 		return false;
 	}
 
+	@Override
+	public boolean removeAll(final Collection<?> c) {
+		return removeRuns(c, true);
+	}
+
+	@Override
+	public boolean retainAll(final Collection<?> c) {
+		return removeRuns(c, false);
+	}
+
 	public ELEMENT get(int index) {
 		return list.get(index);
 	}
@@ -96,23 +104,158 @@ public class ObservableList<ELEMENT> extends AbstractList<ELEMENT> implements IO
 
 	@Override
 	public void clear() {
-		List<ELEMENT> dup = new ArrayList<ELEMENT>(list);
-		list.clear();
-		modCount++;
-		if (!dup.isEmpty()) for (IListObserver<ELEMENT> observer : registeredObservers) {
-			observer.valuesRemoved(this, 0, dup);
+		removeRange(0, list.size());
+	}
+
+	@Override
+	public void setAll(final Collection<? extends ELEMENT> elements) {
+		final List<ELEMENT> newElements = new ArrayList<ELEMENT>(elements);
+		final List<int[]> hunks = ListDiff.diff(list, newElements);
+		for (int i = hunks.size() - 1; i >= 0; i--) {
+			final int[] hunk = hunks.get(i);
+			replaceRange(hunk[0], hunk[1], newElements.subList(hunk[2], hunk[2] + hunk[3]));
 		}
 	}
 
 	@Override
-	public void addObserver(final IListObserver<ELEMENT> observer) {
-		if (!registeredObservers.contains(observer)) {
-			registeredObservers.add(observer);
+	public void removeRange(final int fromIndex, final int toIndex) {
+		if (fromIndex < toIndex) {
+			replaceRange(fromIndex, toIndex - fromIndex, Collections.<ELEMENT>emptyList());
+		}
+	}
+
+	@Override
+	public void convertAll(final IConverter<? super ELEMENT, ? extends ELEMENT> converter) {
+		final Object[] newElements = new Object[list.size()];
+		for (int i = 0; i < newElements.length; i++) {
+			newElements[i] = converter.convert(list.get(i));
+		}
+		replaceChangedRuns(newElements);
+	}
+
+	@Override
+	public void sort(final Comparator<? super ELEMENT> comparator) {
+		final Object[] newElements = list.toArray();
+		final Comparator<Object> elementComparator = uncheckedCast(comparator);
+		Arrays.sort(newElements, elementComparator);
+		int from = 0;
+		int to = newElements.length;
+		while ((from < to) && (newElements[from] == list.get(from))) {
+			from++;
+		}
+		while ((to > from) && (newElements[to - 1] == list.get(to - 1))) {
+			to--;
+		}
+		if (from < to) {
+			final List<ELEMENT> sorted = uncheckedCast(Arrays.asList(newElements).subList(from, to));
+			replaceRange(from, to - from, sorted);
 		}
 	}
 
+	@Override
+	public void addObserver(final IListObserver<ELEMENT> observer) {
+		registeredObservers.add(observer);
+	}
+
 	@Override
 	public void removeObserver(final IListObserver<ELEMENT> observer) {
 		registeredObservers.remove(observer);
 	}
+
+	/**
+	 * Replaces {@code length} elements at {@code index} with {@code elements} and fires at most one removal and
+	 * one addition event.
+	 */
+	private void replaceRange(final int index, final int length, final List<? extends ELEMENT> elements) {
+		if (length > 0) {
+			final List<ELEMENT> range = (length == list.size()) ? list : list.subList(index, index + length);
+			if (registeredObservers.isEmpty()) {
+				range.clear();
+				modCount++;
+			} else {
+				final List<ELEMENT> oldElements = Collections.unmodifiableList(new ArrayList<ELEMENT>(range));
+				range.clear();
+				modCount++;
+				fireValuesRemoved(index, oldElements);
+			}
+		}
+		if (!elements.isEmpty()) {
+			list.addAll(index, elements);
+			modCount++;
+			fireValuesAdded(index, elements.size());
+		}
+	}
+
+	/**
+	 * Removes each run of elements that are ({@code remove == true}) or are not contained in {@code c},
+	 * back to front, with one event per run.
+	 */
+	private boolean removeRuns(final Collection<?> c, final boolean remove) {
+		boolean modified = false;
+		int end = list.size();
+		while (end > 0) {
+			if (c.contains(list.get(end - 1)) != remove) {
+				end--;
+				continue;
+			}
+			int start = end - 1;
+			while ((start > 0) && (c.contains(list.get(start - 1)) == remove)) {
+				start--;
+			}
+			replaceRange(start, end - start, Collections.<ELEMENT>emptyList());
+			modified = true;
+			end = start;
+		}
+		return modified;
+	}
+
+	private void replaceChangedRuns(final Object[] newElements) {
+		int index = 0;
+		while (index < newElements.length) {
+			if (isEqual(list.get(index), newElements[index])) {
+				index++;
+				continue;
+			}
+			int end = index + 1;
+			while ((end < newElements.length) && !isEqual(list.get(end), newElements[end])) {
+				end++;
+			}
+			if (end - index == 1) {
+				final ELEMENT newElement = uncheckedCast(newElements[index]);
+				set(index, newElement);
+			} else {
+				final List<ELEMENT> run = uncheckedCast(Arrays.asList(newElements).subList(index, end));
+				replaceRange(index, end - index, run);
+			}
+			index = end;
+		}
+	}
+
+	private static boolean isEqual(final Object a, final Object b) {
+		return (a == b) || ((a != null) && a.equals(b));
+	}
+
+	private void fireValuesAdded(final int index, final int length) {
+		final ObserverRegistry.Snapshot<IListObserver<ELEMENT>> observers = registeredObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IListObserver<ELEMENT> observer = observers.get(i);
+			if (observer != null) observer.valuesAdded(this, index, length);
+		}
+	}
+
+	private void fireValuesRemoved(final int index, final List<ELEMENT> oldElements) {
+		final ObserverRegistry.Snapshot<IListObserver<ELEMENT>> observers = registeredObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IListObserver<ELEMENT> observer = observers.get(i);
+			if (observer != null) observer.valuesRemoved(this, index, oldElements);
+		}
+	}
+
+	private void fireValueReplaced(final int index, final ELEMENT oldElement) {
+		final ObserverRegistry.Snapshot<IListObserver<ELEMENT>> observers = registeredObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IListObserver<ELEMENT> observer = observers.get(i);
+			if (observer != null) observer.valueReplaced(this, index, oldElement);
+		}
+	}
 }
\ No newline at end of file
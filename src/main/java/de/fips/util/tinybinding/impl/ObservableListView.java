@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import de.fips.util.tinybinding.IConverter;
+import de.fips.util.tinybinding.IListObserver;
+import de.fips.util.tinybinding.IObservableList;
+import de.fips.util.tinybinding.IObservableListView;
+
+/**
+ * Base class for read-only {@link IObservableList IObservableLists} derived from another list.
+ * <p>
+ * A view keeps its own elements up to date from the {@link IListObserver} events of its source and
+ * reports its own changes the same way. The view stays registered at its source until {@link #dispose()}
+ * is called, through an observer of its own: views compare by content like any list, but must never be
+ * mistaken for another observer of their source.
+ *
+ * @param <SOURCE> Type of the source elements.
+ * @param <ELEMENT> Type of the view elements.
+ * @author Philipp Eichhorn
+ */
+abstract class ObservableListView<SOURCE, ELEMENT> extends ObservableList<ELEMENT> implements IObservableListView<ELEMENT> {
+	protected final IObservableList<SOURCE> source;
+	private final SourceObserver sourceObserver = new SourceObserver();
+
+	protected ObservableListView(final IObservableList<SOURCE> source) {
+		super(new ArrayList<ELEMENT>());
+		this.source = source;
+	}
+
+	/**
+	 * Starts receiving the events of the source; called once the view holds the initial elements.
+	 */
+	protected final void observeSource() {
+		source.addObserver(sourceObserver);
+	}
+
+	@Override
+	public void dispose() {
+		source.removeObserver(sourceObserver);
+	}
+
+	protected abstract void valuesAdded(IObservableList<SOURCE> list, int index, int length);
+
+	protected abstract void valuesRemoved(IObservableList<SOURCE> list, int index, List<SOURCE> oldElements);
+
+	protected abstract void valueReplaced(IObservableList<SOURCE> list, int index, SOURCE oldElement);
+
+	@Override
+	public ELEMENT set(final int index, final ELEMENT element) {
+		throw readOnly();
+	}
+
+	@Override
+	public void add(final int index, final ELEMENT element) {
+		throw readOnly();
+	}
+
+	@Override
+	public ELEMENT remove(final int index) {
+		throw readOnly();
+	}
+
+	@Override
+	public boolean addAll(final Collection<? extends ELEMENT> c) {
+		throw readOnly();
+	}
+
+	@Override
+	public boolean addAll(final int index, final Collection<? extends ELEMENT> c) {
+		throw readOnly();
+	}
+
+	@Override
+	public boolean removeAll(final Collection<?> c) {
+		throw readOnly();
+	}
+
+	@Override
+	public boolean retainAll(final Collection<?> c) {
+		throw readOnly();
+	}
+
+	@Override
+	public void clear() {
+		throw readOnly();
+	}
+
+	@Override
+	public void setAll(final Collection<? extends ELEMENT> elements) {
+		throw readOnly();
+	}
+
+	@Override
+	public void removeRange(final int fromIndex, final int toIndex) {
+		throw readOnly();
+	}
+
+	@Override
+	public void convertAll(final IConverter<? super ELEMENT, ? extends ELEMENT> converter) {
+		throw readOnly();
+	}
+
+	@Override
+	public void sort(final Comparator<? super ELEMENT> comparator) {
+		throw readOnly();
+	}
+
+	protected final void viewSet(final int index, final ELEMENT element) {
+		super.set(index, element);
+	}
+
+	protected final void viewAdd(final int index, final ELEMENT element) {
+		super.add(index, element);
+	}
+
+	protected final void viewAddAll(final int index, final Collection<? extends ELEMENT> elements) {
+		super.addAll(index, elements);
+	}
+
+	protected final void viewRemove(final int index) {
+		super.remove(index);
+	}
+
+	protected final void viewRemoveRange(final int fromIndex, final int toIndex) {
+		super.removeRange(fromIndex, toIndex);
+	}
+
+	protected final void viewSetAll(final Collection<? extends ELEMENT> elements) {
+		super.setAll(elements);
+	}
+
+	private UnsupportedOperationException readOnly() {
+		return new UnsupportedOperationException("Views derived from another list are read-only.");
+	}
+
+	private class SourceObserver implements IListObserver<SOURCE> {
+		@Override
+		public void valuesAdded(final IObservableList<SOURCE> list, final int index, final int length) {
+			ObservableListView.this.valuesAdded(list, index, length);
+		}
+
+		@Override
+		public void valuesRemoved(final IObservableList<SOURCE> list, final int index, final List<SOURCE> oldElements) {
+			ObservableListView.this.valuesRemoved(list, index, oldElements);
+		}
+
+		@Override
+		public void valueReplaced(final IObservableList<SOURCE> list, final int index, final SOURCE oldElement) {
+			ObservableListView.this.valueReplaced(list, index, oldElement);
+		}
+	}
+}
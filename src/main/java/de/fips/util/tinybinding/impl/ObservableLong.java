@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import de.fips.util.tinybinding.ILongValueObserver;
+import de.fips.util.tinybinding.IObservableLong;
+
+import lombok.ToString;
+
+/**
+ * Observable {@code long}, that compares and notifies its {@link ILongValueObserver ILongValueObservers}
+ * without boxing.
+ *
+ * @author Philipp Eichhorn
+ */
+@ToString(of = "value")
+public class ObservableLong extends PrimitiveObservableValue<Long> implements IObservableLong {
+	private long value;
+	private final ObserverRegistry<ILongValueObserver> registeredLongObservers = new ObserverRegistry<ILongValueObserver>();
+
+	public ObservableLong(final long value) {
+		this.value = value;
+	}
+
+	@Override
+	public long getLong() {
+		return value;
+	}
+
+	@Override
+	public Long get() {
+		return Long.valueOf(value);
+	}
+
+	@Override
+	public final boolean set(final Long value) {
+		return setLong(value.longValue());
+	}
+
+	@Override
+	public final boolean setLong(final long value) {
+		if (value == this.value) return false;
+		final long oldValue = this.value;
+		this.value = value;
+		if (!Transaction.isActive() || !Transaction.defer(this, Long.valueOf(oldValue))) {
+			notifyObserver(value, oldValue);
+		}
+		return true;
+	}
+
+	@Override
+	final void notifyIfChanged(final Long oldValue) {
+		if (oldValue.longValue() != value) {
+			notifyObserver(value, oldValue.longValue());
+		}
+	}
+
+	protected final void notifyObserver(final long newValue, final long oldValue) {
+		final ObserverRegistry.Snapshot<ILongValueObserver> observers = registeredLongObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final ILongValueObserver observer = observers.get(i);
+			if (observer != null) observer.valueChanged(newValue, oldValue);
+		}
+		if (hasBoxedObservers()) {
+			notifyBoxedObserver(Long.valueOf(newValue), Long.valueOf(oldValue));
+		}
+	}
+
+	@Override
+	public final void addLongObserver(final ILongValueObserver observer) {
+		registeredLongObservers.add(observer);
+	}
+
+	@Override
+	public final void removeLongObserver(final ILongValueObserver observer) {
+		registeredLongObservers.remove(observer);
+	}
+}
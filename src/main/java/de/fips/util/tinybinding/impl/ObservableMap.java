@@ -23,34 +23,70 @@ package de.fips.util.tinybinding.impl;
 
 import java.util.AbstractMap;
 import java.util.AbstractSet;
+import java.util.Collections;
 import java.util.Iterator;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 import de.fips.util.tinybinding.IMapObserver;
 import de.fips.util.tinybinding.IObservableMap;
+import de.fips.util.tinybinding.IObservableValue;
 import de.fips.util.tinybinding.util.Cast;
 
 import lombok.RequiredArgsConstructor;
 
 /**
+ * {@link #putAll(Map)} and {@link #clear()} notify each observer with at most one bulk event per kind of change.
+ * The observers of {@link #observeKey(Object)} are only notified of changes of their key.
  *
  * @author Philipp Eichhorn
  */
 @RequiredArgsConstructor
 public class ObservableMap<KEY, VALUE> extends AbstractMap<KEY, VALUE> implements IObservableMap<KEY, VALUE> {
 	private final Map<KEY, VALUE> map;
-	private final List<IMapObserver<KEY, VALUE>> registeredObservers = new CopyOnWriteArrayList<IMapObserver<KEY, VALUE>>();
+	private final ObserverRegistry<IMapObserver<KEY, VALUE>> registeredObservers = new ObserverRegistry<IMapObserver<KEY, VALUE>>();
+	private final KeyObserverIndex<VALUE> keyObservers = new KeyObserverIndex<VALUE>();
 	private Set<Map.Entry<KEY, VALUE>> entrySet;
 
 	@Override
 	public void clear() {
-		Iterator<KEY> iterator = keySet().iterator();
-		while (iterator.hasNext()) {
-			iterator.next();
-			iterator.remove();
+		if (map.isEmpty()) return;
+		if (registeredObservers.isEmpty() && keyObservers.isEmpty()) {
+			map.clear();
+		} else {
+			final Map<KEY, VALUE> entries = new LinkedHashMap<KEY, VALUE>(map);
+			map.clear();
+			fireEntriesRemoved(entries);
+			for (Map.Entry<KEY, VALUE> entry : entries.entrySet()) {
+				keyObservers.fire(entry.getKey(), null, entry.getValue());
+			}
+		}
+	}
+
+	@Override
+	public void putAll(final Map<? extends KEY, ? extends VALUE> m) {
+		if (registeredObservers.isEmpty() && keyObservers.isEmpty()) {
+			map.putAll(m);
+			return;
+		}
+		final Set<KEY> addedKeys = new LinkedHashSet<KEY>();
+		final Map<KEY, VALUE> lastValues = new LinkedHashMap<KEY, VALUE>();
+		for (Map.Entry<? extends KEY, ? extends VALUE> entry : m.entrySet()) {
+			final KEY key = entry.getKey();
+			final boolean alreadyContainsKey = map.containsKey(key);
+			final VALUE lastValue = map.put(key, entry.getValue());
+			if (alreadyContainsKey) {
+				lastValues.put(key, lastValue);
+			} else {
+				addedKeys.add(key);
+			}
+		}
+		if (!addedKeys.isEmpty()) fireEntriesAdded(addedKeys);
+		if (!lastValues.isEmpty()) fireEntriesChanged(lastValues);
+		for (Map.Entry<? extends KEY, ? extends VALUE> entry : m.entrySet()) {
+			keyObservers.fire(entry.getKey(), entry.getValue(), lastValues.get(entry.getKey()));
 		}
 	}
 
@@ -65,14 +101,11 @@ public class ObservableMap<KEY, VALUE> extends AbstractMap<KEY, VALUE> implement
 		boolean alreadyContainsKey = containsKey(key);
 		VALUE lastValue = map.put(key, value);
 		if (alreadyContainsKey) {
-			for (IMapObserver<KEY, VALUE> observer : registeredObservers) {
-				observer.valueChanged(this, key, lastValue);
-			}
+			fireValueChanged(key, lastValue);
 		} else {
-			for (IMapObserver<KEY, VALUE> observer : registeredObservers) {
-				observer.valueAdded(this, key);
-			}
+			fireValueAdded(key);
 		}
+		keyObservers.fire(key, value, lastValue);
 		return lastValue;
 	}
 
@@ -81,9 +114,8 @@ public class ObservableMap<KEY, VALUE> extends AbstractMap<KEY, VALUE> implement
 		if (containsKey(o)) {
 			VALUE value = map.remove(o);
 			KEY key = Cast.<KEY>uncheckedCast(o);
-			for (IMapObserver<KEY, VALUE> observer : registeredObservers) {
-				observer.valueRemoved(this, key, value);
-			}
+			fireValueRemoved(key, value);
+			keyObservers.fire(key, null, value);
 			return value;
 		}
 		return null;
@@ -95,9 +127,7 @@ public class ObservableMap<KEY, VALUE> extends AbstractMap<KEY, VALUE> implement
 
 	@Override
 	public void addObserver(final IMapObserver<KEY, VALUE> observer) {
-		if (!registeredObservers.contains(observer)) {
-			registeredObservers.add(observer);
-		}
+		registeredObservers.add(observer);
 	}
 
 	@Override
@@ -105,6 +135,62 @@ public class ObservableMap<KEY, VALUE> extends AbstractMap<KEY, VALUE> implement
 		registeredObservers.remove(observer);
 	}
 
+	@Override
+	public IObservableValue<VALUE> observeKey(final KEY key) {
+		return new ObservableMapKeyValue<KEY, VALUE>(this, key, keyObservers);
+	}
+
+	private void fireValueChanged(final KEY key, final VALUE lastValue) {
+		final ObserverRegistry.Snapshot<IMapObserver<KEY, VALUE>> observers = registeredObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IMapObserver<KEY, VALUE> observer = observers.get(i);
+			if (observer != null) observer.valueChanged(this, key, lastValue);
+		}
+	}
+
+	private void fireValueAdded(final KEY key) {
+		final ObserverRegistry.Snapshot<IMapObserver<KEY, VALUE>> observers = registeredObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IMapObserver<KEY, VALUE> observer = observers.get(i);
+			if (observer != null) observer.valueAdded(this, key);
+		}
+	}
+
+	private void fireValueRemoved(final KEY key, final VALUE value) {
+		final ObserverRegistry.Snapshot<IMapObserver<KEY, VALUE>> observers = registeredObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IMapObserver<KEY, VALUE> observer = observers.get(i);
+			if (observer != null) observer.valueRemoved(this, key, value);
+		}
+	}
+
+	private void fireEntriesAdded(final Set<KEY> keys) {
+		final Set<KEY> addedKeys = Collections.unmodifiableSet(keys);
+		final ObserverRegistry.Snapshot<IMapObserver<KEY, VALUE>> observers = registeredObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IMapObserver<KEY, VALUE> observer = observers.get(i);
+			if (observer != null) observer.entriesAdded(this, addedKeys);
+		}
+	}
+
+	private void fireEntriesChanged(final Map<KEY, VALUE> lastValues) {
+		final Map<KEY, VALUE> changedEntries = Collections.unmodifiableMap(lastValues);
+		final ObserverRegistry.Snapshot<IMapObserver<KEY, VALUE>> observers = registeredObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IMapObserver<KEY, VALUE> observer = observers.get(i);
+			if (observer != null) observer.entriesChanged(this, changedEntries);
+		}
+	}
+
+	private void fireEntriesRemoved(final Map<KEY, VALUE> entries) {
+		final Map<KEY, VALUE> removedEntries = Collections.unmodifiableMap(entries);
+		final ObserverRegistry.Snapshot<IMapObserver<KEY, VALUE>> observers = registeredObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IMapObserver<KEY, VALUE> observer = observers.get(i);
+			if (observer != null) observer.entriesRemoved(this, removedEntries);
+		}
+	}
+
 	private class EntryIterator implements Iterator<Map.Entry<KEY, VALUE>> {
 		private final Iterator<Map.Entry<KEY, VALUE>> iterator = map.entrySet().iterator();
 		private Map.Entry<KEY, VALUE> last;
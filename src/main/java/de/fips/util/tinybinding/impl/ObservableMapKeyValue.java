@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import de.fips.util.tinybinding.IObservableConcurrentMap;
+import de.fips.util.tinybinding.IObservableMap;
+import de.fips.util.tinybinding.IObservableValue;
+import de.fips.util.tinybinding.IValueObserver;
+
+/**
+ * The value of one key of an {@link IObservableMap}, as returned by
+ * {@link IObservableMap#observeKey(Object) observeKey}.
+ * <p>
+ * Reads and writes go to the map, setting {@code null} removes the key. Writes to an
+ * {@link IObservableConcurrentMap} use its atomic operations, so they never overwrite a concurrent change
+ * unseen. Observers are kept in the {@link KeyObserverIndex} of the map, so two instances for the same key
+ * of the same map share their observers and are equal.
+ *
+ * @author Philipp Eichhorn
+ */
+final class ObservableMapKeyValue<KEY, VALUE> implements IObservableValue<VALUE> {
+	private final IObservableMap<KEY, VALUE> map;
+	private final KEY key;
+	private final KeyObserverIndex<VALUE> keyObservers;
+
+	public ObservableMapKeyValue(final IObservableMap<KEY, VALUE> map, final KEY key, final KeyObserverIndex<VALUE> keyObservers) {
+		this.map = map;
+		this.key = key;
+		this.keyObservers = keyObservers;
+	}
+
+	@Override
+	public VALUE get() {
+		return map.get(key);
+	}
+
+	@Override
+	public boolean set(final VALUE value) {
+		if (map instanceof IObservableConcurrentMap) {
+			return setAtomically((IObservableConcurrentMap<KEY, VALUE>) map, value);
+		}
+		final VALUE oldValue = get();
+		if (isSame(value, oldValue)) return false;
+		if (value == null) {
+			map.remove(key);
+		} else {
+			map.put(key, value);
+		}
+		return true;
+	}
+
+	private boolean setAtomically(final IObservableConcurrentMap<KEY, VALUE> concurrentMap, final VALUE value) {
+		while (true) {
+			final VALUE oldValue = concurrentMap.get(key);
+			if (isSame(value, oldValue)) return false;
+			if (value == null) {
+				if (concurrentMap.remove(key, oldValue)) return true;
+			} else if (oldValue == null) {
+				if (concurrentMap.putIfAbsent(key, value) == null) return true;
+			} else if (concurrentMap.replace(key, oldValue, value)) {
+				return true;
+			}
+		}
+	}
+
+	private static boolean isSame(final Object value, final Object oldValue) {
+		return (value == null) ? (oldValue == null) : value.equals(oldValue);
+	}
+
+	@Override
+	public void addObserver(final IValueObserver<VALUE> observer) {
+		addObserver(observer, true);
+	}
+
+	@Override
+	public void addObserver(final IValueObserver<VALUE> observer, final boolean emitValueChanged) {
+		keyObservers.add(key, observer);
+		if (emitValueChanged) {
+			observer.valueChanged(get(), null);
+		}
+	}
+
+	@Override
+	public void removeObserver(final IValueObserver<VALUE> observer) {
+		keyObservers.remove(key, observer);
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (o == this) return true;
+		if (!(o instanceof ObservableMapKeyValue)) return false;
+		final ObservableMapKeyValue<?, ?> other = (ObservableMapKeyValue<?, ?>) o;
+		return (map == other.map) && ((key == null) ? (other.key == null) : key.equals(other.key));
+	}
+
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(map) * 31 + ((key == null) ? 0 : key.hashCode());
+	}
+
+	@Override
+	public String toString() {
+		return "ObservableMapKeyValue(key=" + key + ", value=" + get() + ")";
+	}
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NavigableSet;
+import java.util.Set;
+
+import de.fips.util.tinybinding.IObservableSet;
+import de.fips.util.tinybinding.ISetObserver;
+import de.fips.util.tinybinding.util.Cast;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Membership tests go straight to the backing set, so wrapping a {@link java.util.HashSet HashSet} keeps
+ * them O(1). {@link #addAll(Collection)}, {@link #removeAll(Collection)}, {@link #retainAll(Collection)}
+ * and {@link #clear()} notify each observer with at most one event.
+ * <p>
+ * Removals report the elements the set actually held, which may be other instances than the ones passed in.
+ * While observers are registered, finding them takes one pass over the set, or a lookup if the backing set
+ * is a {@link NavigableSet}. Without observers nothing is looked up or copied.
+ *
+ * @author Philipp Eichhorn
+ */
+@RequiredArgsConstructor
+public class ObservableSet<ELEMENT> extends AbstractSet<ELEMENT> implements IObservableSet<ELEMENT> {
+	private final Set<ELEMENT> set;
+	private final ObserverRegistry<ISetObserver<ELEMENT>> registeredObservers = new ObserverRegistry<ISetObserver<ELEMENT>>();
+
+	@Override
+	public int size() {
+		return set.size();
+	}
+
+	@Override
+	public boolean contains(final Object o) {
+		return set.contains(o);
+	}
+
+	@Override
+	public Iterator<ELEMENT> iterator() {
+		return new ElementIterator();
+	}
+
+	@Override
+	public boolean add(final ELEMENT element) {
+		if (!set.add(element)) return false;
+		if (!registeredObservers.isEmpty()) {
+			fireValuesAdded(Collections.singleton(element));
+		}
+		return true;
+	}
+
+	@Override
+	public boolean remove(final Object o) {
+		if (registeredObservers.isEmpty()) {
+			return set.remove(o);
+		}
+		if (!set.contains(o)) return false;
+		final ELEMENT element = storedElement(o);
+		set.remove(o);
+		fireValuesRemoved(Collections.singleton(element));
+		return true;
+	}
+
+	/**
+	 * @return the element of the backing set that matches {@code o}, or {@code o} itself if the backing set
+	 *         matches its elements some other way than {@link Object#equals(Object)}.
+	 */
+	private ELEMENT storedElement(final Object o) {
+		final ELEMENT element = Cast.<ELEMENT>uncheckedCast(o);
+		if (set instanceof NavigableSet) {
+			return ((NavigableSet<ELEMENT>) set).floor(element);
+		}
+		for (ELEMENT stored : set) {
+			if ((o == null) ? (stored == null) : o.equals(stored)) return stored;
+		}
+		return element;
+	}
+
+	@Override
+	public boolean addAll(final Collection<? extends ELEMENT> elements) {
+		if (registeredObservers.isEmpty()) {
+			return set.addAll(elements);
+		}
+		final Set<ELEMENT> added = new LinkedHashSet<ELEMENT>();
+		for (ELEMENT element : elements) {
+			if (set.add(element)) added.add(element);
+		}
+		if (added.isEmpty()) return false;
+		fireValuesAdded(added);
+		return true;
+	}
+
+	@Override
+	public boolean removeAll(final Collection<?> elements) {
+		if (registeredObservers.isEmpty()) {
+			return set.removeAll(elements);
+		}
+		final Set<ELEMENT> removed = new LinkedHashSet<ELEMENT>();
+		if (set instanceof NavigableSet) {
+			for (Object o : elements) {
+				if (set.contains(o)) {
+					removed.add(storedElement(o));
+					set.remove(o);
+				}
+			}
+		} else {
+			final Collection<?> toRemove = (elements instanceof Set) ? elements : new HashSet<Object>(elements);
+			for (Iterator<ELEMENT> iterator = set.iterator(); iterator.hasNext();) {
+				final ELEMENT element = iterator.next();
+				if (toRemove.contains(element)) {
+					iterator.remove();
+					removed.add(element);
+				}
+			}
+		}
+		if (removed.isEmpty()) return false;
+		fireValuesRemoved(removed);
+		return true;
+	}
+
+	@Override
+	public boolean retainAll(final Collection<?> elements) {
+		if (registeredObservers.isEmpty()) {
+			return set.retainAll(elements);
+		}
+		final Set<ELEMENT> removed = new LinkedHashSet<ELEMENT>();
+		for (Iterator<ELEMENT> iterator = set.iterator(); iterator.hasNext();) {
+			final ELEMENT element = iterator.next();
+			if (!elements.contains(element)) {
+				iterator.remove();
+				removed.add(element);
+			}
+		}
+		if (removed.isEmpty()) return false;
+		fireValuesRemoved(removed);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		if (set.isEmpty()) return;
+		if (registeredObservers.isEmpty()) {
+			set.clear();
+		} else {
+			final Set<ELEMENT> removed = new LinkedHashSet<ELEMENT>(set);
+			set.clear();
+			fireValuesRemoved(removed);
+		}
+	}
+
+	@Override
+	public void addObserver(final ISetObserver<ELEMENT> observer) {
+		registeredObservers.add(observer);
+	}
+
+	@Override
+	public void removeObserver(final ISetObserver<ELEMENT> observer) {
+		registeredObservers.remove(observer);
+	}
+
+	private void fireValuesAdded(final Set<ELEMENT> elements) {
+		final Set<ELEMENT> added = Collections.unmodifiableSet(elements);
+		final ObserverRegistry.Snapshot<ISetObserver<ELEMENT>> observers = registeredObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final ISetObserver<ELEMENT> observer = observers.get(i);
+			if (observer != null) observer.valuesAdded(this, added);
+		}
+	}
+
+	private void fireValuesRemoved(final Set<ELEMENT> elements) {
+		final Set<ELEMENT> removed = Collections.unmodifiableSet(elements);
+		final ObserverRegistry.Snapshot<ISetObserver<ELEMENT>> observers = registeredObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final ISetObserver<ELEMENT> observer = observers.get(i);
+			if (observer != null) observer.valuesRemoved(this, removed);
+		}
+	}
+
+	private class ElementIterator implements Iterator<ELEMENT> {
+		private final Iterator<ELEMENT> iterator = set.iterator();
+		private ELEMENT last;
+		private boolean canRemove;
+
+		@Override
+		public boolean hasNext() {
+			return iterator.hasNext();
+		}
+
+		@Override
+		public ELEMENT next() {
+			last = iterator.next();
+			canRemove = true;
+			return last;
+		}
+
+		@Override
+		public void remove() {
+			if (!canRemove) {
+				throw new IllegalStateException();
+			}
+			iterator.remove();
+			canRemove = false;
+			if (!registeredObservers.isEmpty()) {
+				fireValuesRemoved(Collections.singleton(last));
+			}
+			last = null;
+		}
+	}
+}
@@ -21,9 +21,6 @@
  */
 package de.fips.util.tinybinding.impl;
 
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-
 import de.fips.util.tinybinding.IObservableValue;
 import de.fips.util.tinybinding.IValueObserver;
 
@@ -39,7 +36,7 @@ import lombok.ToString;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class ObservableValue<TYPE> implements IObservableValue<TYPE> {
 	private TYPE value;
-	private final List<IValueObserver<TYPE>> registeredObservers = new CopyOnWriteArrayList<IValueObserver<TYPE>>();
+	private final ObserverRegistry<IValueObserver<TYPE>> registeredObservers = new ObserverRegistry<IValueObserver<TYPE>>();
 
 	protected ObservableValue(final TYPE value) {
 		this.value = value;
@@ -53,26 +50,42 @@ public class ObservableValue<TYPE> implements IObservableValue<TYPE> {
 	@Override
 	public final boolean set(final TYPE value) {
 		TYPE oldValue = get();
-		boolean valueIsNull = value == null;
-		boolean oldValueIsNull = oldValue == null;
-		boolean valueChanged = (oldValueIsNull && !valueIsNull) || (valueIsNull && !oldValueIsNull)
-				|| ((value == oldValue) ? false : !value.equals(oldValue));
+		boolean valueChanged = isChanged(value, oldValue);
 		if (valueChanged) {
 			this.value = value;
 			doSet(value);
-			notifyObserver(value, oldValue);
+			if (!Transaction.defer(this, oldValue)) {
+				notifyObserver(value, oldValue);
+			}
 		}
 		return valueChanged;
 	}
 
+	/** Called by {@link Transaction} with the value this observable had before the batch changed it. */
+	final void notifyIfChanged(final TYPE oldValue) {
+		final TYPE value = get();
+		if (isChanged(value, oldValue)) {
+			notifyObserver(value, oldValue);
+		}
+	}
+
+	private static boolean isChanged(final Object value, final Object oldValue) {
+		boolean valueIsNull = value == null;
+		boolean oldValueIsNull = oldValue == null;
+		return (oldValueIsNull && !valueIsNull) || (valueIsNull && !oldValueIsNull)
+				|| ((value == oldValue) ? false : !value.equals(oldValue));
+	}
+
 	/** Hook for subclasses */
 	protected void doSet(final TYPE value) {
 		// Subclasses may use to hook to call their own setter
 	}
 
 	protected final void notifyObserver(final TYPE newValue, final TYPE oldValue) {
-		for (final IValueObserver<TYPE> observer : registeredObservers) {
-			observer.valueChanged(newValue, oldValue);
+		final ObserverRegistry.Snapshot<IValueObserver<TYPE>> observers = registeredObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IValueObserver<TYPE> observer = observers.get(i);
+			if (observer != null) observer.valueChanged(newValue, oldValue);
 		}
 	}
 
@@ -83,9 +96,7 @@ public class ObservableValue<TYPE> implements IObservableValue<TYPE> {
 
 	@Override
 	public final void addObserver(final IValueObserver<TYPE> observer, final boolean emitValueChanged) {
-		if (!registeredObservers.contains(observer)) {
-			registeredObservers.add(observer);
-		}
+		registeredObservers.add(observer);
 		if (emitValueChanged) {
 			observer.valueChanged(get(), null);
 		}
@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import de.fips.util.tinybinding.util.Cast;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Registry for the observers of {@link ObservableValue ObservableValues}, {@link ObservableList ObservableLists}
+ * and {@link ObservableMap ObservableMaps}.
+ * <p>
+ * Adding and removing an observer takes constant time: the observers are kept in registration order
+ * in an array that is indexed by a map, and the array is only replaced when it has to grow or when
+ * more than half of its slots belong to removed observers.
+ * <p>
+ * Notifications iterate over a {@link Snapshot} without allocating anything. Observers that get
+ * added during a notification are not part of it, observers that get removed are skipped. Each observer
+ * sits in an entry of its own that is shared by all arrays, so removing it clears it from older snapshots
+ * as well, even after the array got replaced.
+ *
+ * @param <OBSERVER> Type of the observers.
+ * @author Philipp Eichhorn
+ */
+final class ObserverRegistry<OBSERVER> {
+	private static final int INITIAL_CAPACITY = 4;
+
+	private final Map<OBSERVER, Entry<OBSERVER>> entries = new HashMap<OBSERVER, Entry<OBSERVER>>();
+	private volatile Snapshot<OBSERVER> snapshot = new Snapshot<OBSERVER>(new Object[0], 0);
+	private volatile int observerCount;
+	private int removedObservers;
+
+	public synchronized boolean add(final OBSERVER observer) {
+		if (entries.containsKey(observer)) return false;
+		Snapshot<OBSERVER> current = snapshot;
+		if (current.size == current.observers.length) {
+			current = compact(Math.max(INITIAL_CAPACITY, (entries.size() + 1) * 2));
+		}
+		final int index = current.size;
+		final Entry<OBSERVER> entry = new Entry<OBSERVER>(observer, index);
+		current.observers[index] = entry;
+		entries.put(observer, entry);
+		observerCount = entries.size();
+		snapshot = new Snapshot<OBSERVER>(current.observers, index + 1);
+		return true;
+	}
+
+	public synchronized boolean remove(final Object observer) {
+		final Entry<OBSERVER> entry = entries.remove(observer);
+		if (entry == null) return false;
+		entry.observer = null;
+		final Snapshot<OBSERVER> current = snapshot;
+		current.observers[entry.index] = null;
+		observerCount = entries.size();
+		removedObservers++;
+		if (removedObservers > (current.size / 2)) {
+			snapshot = compact(current.observers.length);
+		} else {
+			snapshot = current;
+		}
+		return true;
+	}
+
+	public boolean isEmpty() {
+		return observerCount == 0;
+	}
+
+	/**
+	 * Returns the observers as they are registered right now; the snapshot may contain {@code null}
+	 * for observers that got removed after the snapshot was taken.
+	 */
+	public Snapshot<OBSERVER> snapshot() {
+		return snapshot;
+	}
+
+	private Snapshot<OBSERVER> compact(final int capacity) {
+		final Snapshot<OBSERVER> current = snapshot;
+		final Object[] observers = new Object[capacity];
+		int size = 0;
+		for (int i = 0; i < current.size; i++) {
+			final Entry<OBSERVER> entry = Cast.<Entry<OBSERVER>>uncheckedCast(current.observers[i]);
+			if (entry == null) continue;
+			entry.index = size;
+			observers[size] = entry;
+			size++;
+		}
+		removedObservers = 0;
+		return new Snapshot<OBSERVER>(observers, size);
+	}
+
+	@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+	static final class Snapshot<OBSERVER> {
+		private final Object[] observers;
+		private final int size;
+
+		public int size() {
+			return size;
+		}
+
+		public OBSERVER get(final int index) {
+			final Entry<OBSERVER> entry = Cast.<Entry<OBSERVER>>uncheckedCast(observers[index]);
+			return (entry == null) ? null : entry.observer;
+		}
+	}
+
+	private static final class Entry<OBSERVER> {
+		private volatile OBSERVER observer;
+		private int index;
+
+		public Entry(final OBSERVER observer, final int index) {
+			this.observer = observer;
+			this.index = index;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import de.fips.util.tinybinding.IObservableValue;
+import de.fips.util.tinybinding.IValueObserver;
+
+/**
+ * Base class of the primitive observable values, that keeps their boxed {@link IValueObserver IValueObservers}.
+ * <p>
+ * Subclasses store their value as primitive and box it only for boxed observers, for {@link #get()}
+ * and for changes made during a {@link Transaction}.
+ *
+ * @author Philipp Eichhorn
+ */
+abstract class PrimitiveObservableValue<TYPE> implements IObservableValue<TYPE> {
+	private final ObserverRegistry<IValueObserver<TYPE>> registeredObservers = new ObserverRegistry<IValueObserver<TYPE>>();
+
+	/** Called by {@link Transaction} with the value this observable had before the batch changed it. */
+	abstract void notifyIfChanged(TYPE oldValue);
+
+	protected final boolean hasBoxedObservers() {
+		return !registeredObservers.isEmpty();
+	}
+
+	protected final void notifyBoxedObserver(final TYPE newValue, final TYPE oldValue) {
+		final ObserverRegistry.Snapshot<IValueObserver<TYPE>> observers = registeredObservers.snapshot();
+		for (int i = 0, size = observers.size(); i < size; i++) {
+			final IValueObserver<TYPE> observer = observers.get(i);
+			if (observer != null) observer.valueChanged(newValue, oldValue);
+		}
+	}
+
+	@Override
+	public final void addObserver(final IValueObserver<TYPE> observer) {
+		addObserver(observer, true);
+	}
+
+	@Override
+	public final void addObserver(final IValueObserver<TYPE> observer, final boolean emitValueChanged) {
+		registeredObservers.add(observer);
+		if (emitValueChanged) {
+			observer.valueChanged(get(), null);
+		}
+	}
+
+	@Override
+	public final void removeObserver(final IValueObserver<TYPE> observer) {
+		registeredObservers.remove(observer);
+	}
+}
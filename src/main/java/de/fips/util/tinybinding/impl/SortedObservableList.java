@@ -0,0 +1,162 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import de.fips.util.tinybinding.IObservableList;
+
+/**
+ * Live view that contains the elements of its source list in the order defined by a {@link Comparator}.
+ * <p>
+ * The view keeps a permutation from view positions to source indices. Equal elements are ordered by
+ * their source index, so every element has exactly one position and can be found by binary search.
+ * Single changes only reposition the changed element, bulk additions are sorted and merged into the view.
+ *
+ * @author Philipp Eichhorn
+ */
+final class SortedObservableList<ELEMENT> extends ObservableListView<ELEMENT, ELEMENT> {
+	private final Comparator<? super ELEMENT> comparator;
+	private final List<Integer> sourceIndices = new ArrayList<Integer>();
+
+	public SortedObservableList(final IObservableList<ELEMENT> source, final Comparator<? super ELEMENT> comparator) {
+		super(source);
+		this.comparator = comparator;
+		valuesAdded(source, 0, source.size());
+		observeSource();
+	}
+
+	@Override
+	protected void valuesAdded(final IObservableList<ELEMENT> list, final int index, final int length) {
+		shiftSourceIndices(index, length);
+		if (length == 1) {
+			final ELEMENT element = source.get(index);
+			final int position = position(element, index);
+			sourceIndices.add(position, Integer.valueOf(index));
+			viewAdd(position, element);
+		} else if (length > 1) {
+			final List<Integer> added = new ArrayList<Integer>(length);
+			for (int i = index; i < index + length; i++) {
+				added.add(Integer.valueOf(i));
+			}
+			Collections.sort(added, new Comparator<Integer>() {
+				@Override
+				public int compare(final Integer a, final Integer b) {
+					return SortedObservableList.this.compare(source.get(a.intValue()), a.intValue(), source.get(b.intValue()), b.intValue());
+				}
+			});
+			final List<Integer> merged = new ArrayList<Integer>(sourceIndices.size() + length);
+			int i = 0;
+			int j = 0;
+			while ((i < sourceIndices.size()) || (j < length)) {
+				if ((j == length) || ((i < sourceIndices.size()) && (compare(get(i), sourceIndices.get(i).intValue(), source.get(added.get(j).intValue()), added.get(j).intValue()) < 0))) {
+					merged.add(sourceIndices.get(i++));
+				} else {
+					merged.add(added.get(j++));
+				}
+			}
+			apply(merged);
+		}
+	}
+
+	@Override
+	protected void valuesRemoved(final IObservableList<ELEMENT> list, final int index, final List<ELEMENT> oldElements) {
+		final int length = oldElements.size();
+		if (length == 1) {
+			final int position = position(oldElements.get(0), index);
+			sourceIndices.remove(position);
+			shiftSourceIndices(index + 1, -1);
+			viewRemove(position);
+		} else if (length > 1) {
+			final List<Integer> remaining = new ArrayList<Integer>(sourceIndices.size());
+			for (Integer sourceIndex : sourceIndices) {
+				final int i = sourceIndex.intValue();
+				if (i < index) {
+					remaining.add(sourceIndex);
+				} else if (i >= index + length) {
+					remaining.add(Integer.valueOf(i - length));
+				}
+			}
+			apply(remaining);
+		}
+	}
+
+	@Override
+	protected void valueReplaced(final IObservableList<ELEMENT> list, final int index, final ELEMENT oldElement) {
+		final ELEMENT element = source.get(index);
+		final int position = position(oldElement, index);
+		final boolean afterPrevious = (position == 0) || (compare(get(position - 1), sourceIndices.get(position - 1).intValue(), element, index) < 0);
+		final boolean beforeNext = (position == size() - 1) || (compare(element, index, get(position + 1), sourceIndices.get(position + 1).intValue()) < 0);
+		if (afterPrevious && beforeNext) {
+			viewSet(position, element);
+		} else {
+			sourceIndices.remove(position);
+			viewRemove(position);
+			final int newPosition = position(element, index);
+			sourceIndices.add(newPosition, Integer.valueOf(index));
+			viewAdd(newPosition, element);
+		}
+	}
+
+	/**
+	 * Returns the view position of the given element, or the position it has to be inserted at.
+	 */
+	private int position(final ELEMENT element, final int sourceIndex) {
+		int low = 0;
+		int high = sourceIndices.size();
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (compare(get(mid), sourceIndices.get(mid).intValue(), element, sourceIndex) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private int compare(final ELEMENT a, final int aIndex, final ELEMENT b, final int bIndex) {
+		final int result = comparator.compare(a, b);
+		if (result != 0) return result;
+		return (aIndex < bIndex) ? -1 : ((aIndex == bIndex) ? 0 : 1);
+	}
+
+	private void shiftSourceIndices(final int fromSourceIndex, final int delta) {
+		for (int i = 0, size = sourceIndices.size(); i < size; i++) {
+			final int sourceIndex = sourceIndices.get(i).intValue();
+			if (sourceIndex >= fromSourceIndex) sourceIndices.set(i, Integer.valueOf(sourceIndex + delta));
+		}
+	}
+
+	private void apply(final List<Integer> newSourceIndices) {
+		final List<ELEMENT> elements = new ArrayList<ELEMENT>(newSourceIndices.size());
+		for (Integer sourceIndex : newSourceIndices) {
+			elements.add(source.get(sourceIndex.intValue()));
+		}
+		sourceIndices.clear();
+		sourceIndices.addAll(newSourceIndices);
+		viewSetAll(elements);
+	}
+}
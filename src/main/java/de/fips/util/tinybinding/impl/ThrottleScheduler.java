@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import de.fips.util.tinybinding.IUpdateScheduler;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs the update of a binding at most once per interval. The first change runs the update right
+ * away, all changes within the following interval are folded into one update at its end.
+ * <p>
+ * The scheduler only keeps the time, the update itself runs on the executor, one at a time.
+ *
+ * @author Philipp Eichhorn
+ */
+@RequiredArgsConstructor
+public final class ThrottleScheduler implements IUpdateScheduler {
+	@NonNull
+	private final ScheduledExecutorService scheduler;
+	@NonNull
+	private final Executor executor;
+	private final long interval;
+	@NonNull
+	private final TimeUnit unit;
+
+	@Override
+	public Runnable attach(final Runnable update) {
+		return new Trigger(new CoalescingScheduler(executor).attach(update));
+	}
+
+	@RequiredArgsConstructor
+	private class Trigger implements Runnable {
+		private final Runnable update;
+		private boolean scheduled;
+		private long nextUpdate = System.nanoTime();
+		private final Runnable fire = new Runnable() {
+			@Override
+			public void run() {
+				synchronized (Trigger.this) {
+					scheduled = false;
+					nextUpdate = System.nanoTime() + unit.toNanos(interval);
+				}
+				update.run();
+			}
+		};
+
+		@Override
+		public synchronized void run() {
+			if (scheduled) return;
+			scheduled = true;
+			scheduler.schedule(fire, Math.max(0, nextUpdate - System.nanoTime()), TimeUnit.NANOSECONDS);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import static de.fips.util.tinybinding.util.Cast.uncheckedCast;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Defers the notifications of {@link ObservableValue ObservableValues} and of the primitive observable values
+ * while a batch is running on the current thread.
+ * <p>
+ * Each observable changed during the batch notifies its observers once, when the outermost batch ends,
+ * with the value it had before its first change and the value it has when the batch ends. Observables
+ * that end up with the value they started with do not notify at all. Nested batches join the outer one.
+ * <p>
+ * If observers throw while the batch ends, the remaining observables still notify theirs. Then the first
+ * exception is rethrown, unless the batch itself failed, whose exception is kept.
+ *
+ * @author Philipp Eichhorn
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Transaction {
+	private static final ThreadLocal<Transaction> CURRENT = new ThreadLocal<Transaction>();
+	private static final AtomicInteger ACTIVE = new AtomicInteger();
+
+	private final Map<Object, Object> firstOldValues = new LinkedHashMap<Object, Object>();
+
+	public static void run(final Runnable batch) {
+		if (CURRENT.get() != null) {
+			batch.run();
+			return;
+		}
+		final Transaction transaction = new Transaction();
+		CURRENT.set(transaction);
+		ACTIVE.incrementAndGet();
+		final RuntimeException failure;
+		try {
+			batch.run();
+		} finally {
+			ACTIVE.decrementAndGet();
+			CURRENT.remove();
+			failure = transaction.commit();
+		}
+		if (failure != null) throw failure;
+	}
+
+	public static boolean isActive() {
+		return (ACTIVE.get() != 0) && (CURRENT.get() != null);
+	}
+
+	/**
+	 * Records the change of {@code observable}, if a batch is running on the current thread.
+	 *
+	 * @return {@code true} if the notification got deferred, {@code false} if the caller has to notify right away.
+	 */
+	static <TYPE> boolean defer(final ObservableValue<TYPE> observable, final TYPE oldValue) {
+		return deferChange(observable, oldValue);
+	}
+
+	static <TYPE> boolean defer(final PrimitiveObservableValue<TYPE> observable, final TYPE oldValue) {
+		return deferChange(observable, oldValue);
+	}
+
+	private static boolean deferChange(final Object observable, final Object oldValue) {
+		if (ACTIVE.get() == 0) return false;
+		final Transaction transaction = CURRENT.get();
+		if (transaction == null) return false;
+		if (!transaction.firstOldValues.containsKey(observable)) {
+			transaction.firstOldValues.put(observable, oldValue);
+		}
+		return true;
+	}
+
+	/**
+	 * @return the first exception thrown by an observer, or {@code null}.
+	 */
+	private RuntimeException commit() {
+		RuntimeException failure = null;
+		for (Map.Entry<Object, Object> entry : firstOldValues.entrySet()) {
+			try {
+				if (entry.getKey() instanceof PrimitiveObservableValue) {
+					final PrimitiveObservableValue<Object> observable = uncheckedCast(entry.getKey());
+					observable.notifyIfChanged(entry.getValue());
+				} else {
+					final ObservableValue<Object> observable = uncheckedCast(entry.getKey());
+					observable.notifyIfChanged(entry.getValue());
+				}
+			} catch (RuntimeException e) {
+				if (failure == null) failure = e;
+			}
+		}
+		return failure;
+	}
+}
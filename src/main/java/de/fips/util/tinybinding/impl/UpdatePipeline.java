@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import static de.fips.util.tinybinding.util.Cast.uncheckedCast;
+
+import de.fips.util.tinybinding.IConverter;
+import de.fips.util.tinybinding.IObservableValue;
+import de.fips.util.tinybinding.IUpdateStrategy;
+import de.fips.util.tinybinding.IValidationResult;
+import de.fips.util.tinybinding.IValidator;
+
+/**
+ * An {@link IUpdateStrategy} compiled into the single step a binding runs for every update.
+ * <p>
+ * A plain {@link UpdateStrategy} compiles into a step that contains only what it is configured with, so an
+ * identity binding just passes the value on. Other strategies are called step by step, as before.
+ * The configuration of an {@link UpdateStrategy} is read once, when the binding is created.
+ *
+ * @author Philipp Eichhorn
+ */
+abstract class UpdatePipeline<SOURCE, TARGET> {
+	/** Returned by {@link #apply(Object)} if validation rejected the value. */
+	static final Object REJECTED = new Object();
+
+	public static <SOURCE, TARGET> UpdatePipeline<SOURCE, TARGET> compile(final IUpdateStrategy<SOURCE, TARGET> strategy) {
+		if (strategy instanceof UpdateStrategy) {
+			return ((UpdateStrategy<SOURCE, TARGET>) strategy).compile();
+		}
+		return new Delegating<SOURCE, TARGET>(strategy);
+	}
+
+	/**
+	 * @return the validated and converted value, or {@link #REJECTED}.
+	 */
+	public abstract Object apply(SOURCE value);
+
+	/**
+	 * Sets a value returned by {@link #apply(Object)}.
+	 */
+	public void set(final IObservableValue<TARGET> target, final Object value) {
+		final TARGET targetValue = uncheckedCast(value);
+		target.set(targetValue);
+	}
+
+	private static boolean isOk(final IValidationResult status) {
+		return (status == ValidationResult.OK) || (status.getType() == IValidationResult.Type.OK);
+	}
+
+	static final class Identity<SOURCE, TARGET> extends UpdatePipeline<SOURCE, TARGET> {
+		@Override
+		public Object apply(final SOURCE value) {
+			return value;
+		}
+	}
+
+	static final class Converting<SOURCE, TARGET> extends UpdatePipeline<SOURCE, TARGET> {
+		private final IConverter<SOURCE, TARGET> converter;
+
+		public Converting(final IConverter<SOURCE, TARGET> converter) {
+			this.converter = converter;
+		}
+
+		@Override
+		public Object apply(final SOURCE value) {
+			return converter.convert(value);
+		}
+	}
+
+	static final class Validating<SOURCE, TARGET> extends UpdatePipeline<SOURCE, TARGET> {
+		private final IValidator<? super SOURCE> afterGetValidator;
+		private final IConverter<SOURCE, TARGET> converter;
+		private final IValidator<? super TARGET> beforeSetValidator;
+
+		public Validating(final IValidator<? super SOURCE> afterGetValidator, final IConverter<SOURCE, TARGET> converter,
+				final IValidator<? super TARGET> beforeSetValidator) {
+			this.afterGetValidator = afterGetValidator;
+			this.converter = converter;
+			this.beforeSetValidator = beforeSetValidator;
+		}
+
+		@Override
+		public Object apply(final SOURCE value) {
+			if ((afterGetValidator != null) && !isOk(afterGetValidator.validate(value))) return REJECTED;
+			final TARGET targetValue = converter.convert(value);
+			if ((beforeSetValidator != null) && !isOk(beforeSetValidator.validate(targetValue))) return REJECTED;
+			return targetValue;
+		}
+	}
+
+	static final class Delegating<SOURCE, TARGET> extends UpdatePipeline<SOURCE, TARGET> {
+		private final IUpdateStrategy<SOURCE, TARGET> strategy;
+
+		public Delegating(final IUpdateStrategy<SOURCE, TARGET> strategy) {
+			this.strategy = strategy;
+		}
+
+		@Override
+		public Object apply(final SOURCE value) {
+			if (!isOk(strategy.validateAfterGet(value))) return REJECTED;
+			final TARGET targetValue = strategy.convert(value);
+			if (!isOk(strategy.validateBeforeSet(targetValue))) return REJECTED;
+			return targetValue;
+		}
+
+		@Override
+		public void set(final IObservableValue<TARGET> target, final Object value) {
+			final TARGET targetValue = uncheckedCast(value);
+			strategy.doSet(target, targetValue);
+		}
+	}
+}
@@ -23,11 +23,15 @@ package de.fips.util.tinybinding.impl;
 
 import static de.fips.util.tinybinding.ValidationResults.ok;
 
+import java.util.concurrent.Executor;
+
 import de.fips.util.tinybinding.IConverter;
 import de.fips.util.tinybinding.IObservableValue;
+import de.fips.util.tinybinding.IUpdateScheduler;
 import de.fips.util.tinybinding.IUpdateStrategy;
 import de.fips.util.tinybinding.IValidationResult;
 import de.fips.util.tinybinding.IValidator;
+import de.fips.util.tinybinding.UpdateSchedulers;
 
 import lombok.FluentSetter;
 import lombok.NoArgsConstructor;
@@ -42,6 +46,8 @@ public class UpdateStrategy<SOURCE, TARGET> implements IUpdateStrategy<SOURCE, T
 	private IValidator<? super SOURCE> afterGetValidator;
 	private IValidator<? super TARGET> beforeSetValidator;
 	private IConverter<SOURCE, TARGET> converter = new Converter<SOURCE, TARGET>();
+	private IUpdateScheduler scheduler = UpdateSchedulers.immediate();
+	private Executor applyExecutor;
 
 	public UpdateStrategy(final IValidator<? super SOURCE> afterGetValidator, final IValidator<? super TARGET> beforeSetValidator) {
 		this.afterGetValidator = afterGetValidator;
@@ -58,6 +64,22 @@ public class UpdateStrategy<SOURCE, TARGET> implements IUpdateStrategy<SOURCE, T
 		value.set(object);
 	}
 
+	/**
+	 * Bindings with other {@link IUpdateStrategy IUpdateStrategies} always update immediately.
+	 */
+	public IUpdateScheduler getScheduler() {
+		return scheduler;
+	}
+
+	/**
+	 * @return the executor that sets the converted value on the target, or {@code null} to set it on the
+	 *         thread that ran the update. Bindings with other {@link IUpdateStrategy IUpdateStrategies} always
+	 *         set the target on the thread that ran the update.
+	 */
+	public Executor getApplyExecutor() {
+		return applyExecutor;
+	}
+
 	@Override
 	public IValidationResult validateAfterGet(final SOURCE source) {
 		return (afterGetValidator == null) ? ok() : afterGetValidator.validate(source);
@@ -67,4 +89,28 @@ public class UpdateStrategy<SOURCE, TARGET> implements IUpdateStrategy<SOURCE, T
 	public IValidationResult validateBeforeSet(final TARGET target) {
 		return (beforeSetValidator == null) ? ok() : beforeSetValidator.validate(target);
 	}
+
+	/**
+	 * Compiles the current configuration into the step a binding runs per update, leaving out absent
+	 * validators and the identity converter. Subclasses may override any step, so they are called as they are.
+	 */
+	UpdatePipeline<SOURCE, TARGET> compile() {
+		if (getClass() != UpdateStrategy.class) {
+			return new UpdatePipeline.Delegating<SOURCE, TARGET>(this);
+		} else if ((afterGetValidator != null) || (beforeSetValidator != null)) {
+			return new UpdatePipeline.Validating<SOURCE, TARGET>(afterGetValidator, converter, beforeSetValidator);
+		} else if (converter instanceof Converter) {
+			return new UpdatePipeline.Identity<SOURCE, TARGET>();
+		} else {
+			return new UpdatePipeline.Converting<SOURCE, TARGET>(converter);
+		}
+	}
+
+	/**
+	 * @return {@code true} if this strategy copies values right away, unconverted and unvalidated.
+	 */
+	boolean isIdentity() {
+		return (getClass() == UpdateStrategy.class) && (afterGetValidator == null) && (beforeSetValidator == null)
+				&& (converter instanceof Converter) && (scheduler == ImmediateScheduler.INSTANCE) && (applyExecutor == null);
+	}
 }
@@ -28,6 +28,9 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @Getter
 public final class ValidationResult implements IValidationResult {
+	/** Results are immutable, so every OK without a message is this one. */
+	public static final ValidationResult OK = new ValidationResult(Type.OK, "");
+
 	private final Type type;
 	private final String message;
 }
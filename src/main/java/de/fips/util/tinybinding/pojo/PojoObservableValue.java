@@ -21,18 +21,13 @@
  */
 package de.fips.util.tinybinding.pojo;
 
-import static org.fest.reflect.core.Reflection.property;
 import static de.fips.util.tinybinding.WeakListeners.addWeak;
-import static de.fips.util.tinybinding.util.Cast.uncheckedCast;
-import static de.fips.util.tinybinding.util.Reflection.getPrimitive;
-import static de.fips.util.tinybinding.util.Reflection.hasPrimitive;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 
-import org.fest.reflect.beanproperty.Invoker;
-import org.fest.reflect.exception.ReflectionError;
-
+import de.fips.util.tinybinding.IPropertyAccessor;
+import de.fips.util.tinybinding.PropertyAccessors;
 import de.fips.util.tinybinding.WeakListeners;
 import de.fips.util.tinybinding.impl.ObservableValue;
 import de.fips.util.tinybinding.util.Cast;
@@ -55,13 +50,13 @@ import de.fips.util.tinybinding.util.Cast;
 class PojoObservableValue<TYPE> extends ObservableValue<TYPE> implements PropertyChangeListener {
 	private final Object pojo;
 	private final String propertyName;
-	private final Class<TYPE> propertyType;
+	private final IPropertyAccessor<TYPE> accessor;
 	private volatile boolean propertyChange;
 
 	PojoObservableValue(final Object pojo, final String propertyName, final Class<TYPE> propertyType) {
 		this.pojo = pojo;
 		this.propertyName = propertyName;
-		this.propertyType = propertyType;
+		accessor = PropertyAccessors.of(pojo.getClass(), propertyName, propertyType);
 		try {
 			addWeak(PropertyChangeListener.class, this).withPropertyName(propertyName).toTarget(pojo);
 		} catch (IllegalStateException e) {
@@ -85,8 +80,8 @@ class PojoObservableValue<TYPE> extends ObservableValue<TYPE> implements Propert
 
 	protected TYPE getPojoValue() {
 		try {
-			return getInvoker().get();
-		} catch (ReflectionError ignore) {
+			return accessor.get(pojo);
+		} catch (IllegalStateException ignore) {
 			return null;
 		}
 	}
@@ -95,21 +90,10 @@ class PojoObservableValue<TYPE> extends ObservableValue<TYPE> implements Propert
 	protected void doSet(final TYPE value) {
 		if (!propertyChange) {
 			try {
-				getInvoker().set(value);
-			} catch (ReflectionError ignore) {
+				accessor.set(pojo, value);
+			} catch (IllegalStateException ignore) {
 				// ignore
 			}
 		}
 	}
-
-	private Invoker<TYPE> getInvoker() {
-		try {
-			return property(propertyName).ofType(propertyType).in(pojo);
-		} catch (ReflectionError e) {
-			if (hasPrimitive(propertyType)) {
-				final Invoker<TYPE> invoker = uncheckedCast(property(propertyName).ofType(getPrimitive(propertyType)).in(pojo));
-				return invoker;
-			} else throw e;
-		}
-	}
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.swing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Single daemon thread that moves component values into their {@link ObservableComponentValue ObservableComponentValues}.
+ * <p>
+ * Each observable has at most one pending value and is queued only when it gets its first pending value, so a burst of
+ * component events costs one queue entry and one {@code set} with the latest value. Queued observables are applied in
+ * batches and in the order they were queued.
+ *
+ * @author Philipp Eichhorn
+ */
+final class ComponentValueDispatcher implements Runnable {
+	static final Object NONE = new Object();
+
+	private final BlockingQueue<ObservableComponentValue<?, ?>> queue = new LinkedBlockingQueue<ObservableComponentValue<?, ?>>();
+
+	private ComponentValueDispatcher() {
+	}
+
+	static void dispatch(final ObservableComponentValue<?, ?> value) {
+		Holder.INSTANCE.queue.add(value);
+	}
+
+	@Override
+	public void run() {
+		final List<ObservableComponentValue<?, ?>> batch = new ArrayList<ObservableComponentValue<?, ?>>();
+		while (true) {
+			try {
+				batch.add(queue.take());
+			} catch (InterruptedException e) {
+				return;
+			}
+			queue.drainTo(batch);
+			for (ObservableComponentValue<?, ?> value : batch) {
+				try {
+					value.applyPendingValue();
+				} catch (RuntimeException e) {
+					final Thread thread = Thread.currentThread();
+					thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+				}
+			}
+			batch.clear();
+		}
+	}
+
+	private static class Holder {
+		private static final ComponentValueDispatcher INSTANCE = new ComponentValueDispatcher();
+
+		static {
+			final Thread thread = new Thread(INSTANCE, "tinybinding-swing-dispatcher");
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.swing;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counts the writes of observed values into their Swing components.
+ * <p>
+ * A component gets at most one pending write on the event dispatch thread; values that arrive while
+ * a write is pending replace its value and count as collapsed.
+ *
+ * @author Philipp Eichhorn
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ComponentWriteCounters {
+	private static final AtomicLong SCHEDULED = new AtomicLong();
+	private static final AtomicLong COLLAPSED = new AtomicLong();
+
+	/**
+	 * @return the number of writes posted to the event dispatch thread.
+	 */
+	public static long scheduledWrites() {
+		return SCHEDULED.get();
+	}
+
+	/**
+	 * @return the number of values that replaced the value of an already pending write.
+	 */
+	public static long collapsedWrites() {
+		return COLLAPSED.get();
+	}
+
+	public static void reset() {
+		SCHEDULED.set(0);
+		COLLAPSED.set(0);
+	}
+
+	static void scheduled() {
+		SCHEDULED.incrementAndGet();
+	}
+
+	static void collapsed() {
+		COLLAPSED.incrementAndGet();
+	}
+}
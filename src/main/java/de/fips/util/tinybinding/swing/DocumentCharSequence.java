@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.swing;
+
+import java.util.Arrays;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Segment;
+
+/**
+ * {@link CharSequence} with the text a {@link Document} had when the sequence got created.
+ * <p>
+ * The text is copied once, under the read lock of {@link Document#render(Runnable)}, so the sequence may be
+ * created off the event dispatch thread and read from any thread later on. {@link #subSequence(int, int)}
+ * shares the copied characters. Two sequences are equal if they hold the same text, so an event that
+ * leaves the text unchanged does not count as a change.
+ *
+ * @author Philipp Eichhorn
+ */
+final class DocumentCharSequence implements CharSequence {
+	private final char[] chars;
+	private final int offset;
+	private final int length;
+
+	private DocumentCharSequence(final char[] chars, final int offset, final int length) {
+		this.chars = chars;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	/**
+	 * @return the current text of {@code document}, or {@code null} if it could not be read.
+	 */
+	public static DocumentCharSequence snapshotOf(final Document document) {
+		final Snapshot snapshot = new Snapshot(document);
+		document.render(snapshot);
+		return (snapshot.chars == null) ? null : new DocumentCharSequence(snapshot.chars, 0, snapshot.chars.length);
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(final int index) {
+		if ((index < 0) || (index >= length)) throw new IndexOutOfBoundsException("index: " + index);
+		return chars[offset + index];
+	}
+
+	@Override
+	public CharSequence subSequence(final int start, final int end) {
+		if ((start < 0) || (end > length) || (start > end)) throw new IndexOutOfBoundsException("start: " + start + ", end: " + end);
+		return new DocumentCharSequence(chars, offset + start, end - start);
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (o == this) return true;
+		if (!(o instanceof DocumentCharSequence)) return false;
+		final DocumentCharSequence other = (DocumentCharSequence) o;
+		if (length != other.length) return false;
+		for (int i = 0; i < length; i++) {
+			if (chars[offset + i] != other.chars[other.offset + i]) return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		for (int i = 0; i < length; i++) {
+			hash = 31 * hash + chars[offset + i];
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return new String(chars, offset, length);
+	}
+
+	/**
+	 * Copies the text while {@link Document#render(Runnable)} holds the read lock.
+	 */
+	private static class Snapshot implements Runnable {
+		private final Document document;
+		private char[] chars;
+
+		public Snapshot(final Document document) {
+			this.document = document;
+		}
+
+		@Override
+		public void run() {
+			final Segment segment = new Segment();
+			try {
+				document.getText(0, document.getLength(), segment);
+				chars = Arrays.copyOfRange(segment.array, segment.offset, segment.offset + segment.count);
+			} catch (BadLocationException e) {
+				// ignore
+			}
+		}
+	}
+}
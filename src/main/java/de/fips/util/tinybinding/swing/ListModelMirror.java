@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.swing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+
+import de.fips.util.tinybinding.IListObserver;
+import de.fips.util.tinybinding.IObservableList;
+
+/**
+ * Copy of an {@link IObservableList} that lives on the event dispatch thread.
+ * <p>
+ * List events are queued on the thread that caused them, adjacent events are merged and the whole queue is
+ * applied by one task per event dispatch cycle, which then reports the changed intervals to its
+ * {@link IIntervalListener}.
+ *
+ * @author Philipp Eichhorn
+ */
+final class ListModelMirror<ELEMENT> implements IListObserver<ELEMENT>, Runnable {
+	private final IObservableList<ELEMENT> list;
+	private final IIntervalListener listener;
+	private final List<ELEMENT> rows;
+	private List<Change<ELEMENT>> pending = new ArrayList<Change<ELEMENT>>();
+
+	public ListModelMirror(final IObservableList<ELEMENT> list, final IIntervalListener listener) {
+		this.list = list;
+		this.listener = listener;
+		rows = new ArrayList<ELEMENT>(list);
+		list.addObserver(this);
+	}
+
+	/**
+	 * Event dispatch thread only.
+	 */
+	public int size() {
+		return rows.size();
+	}
+
+	/**
+	 * Event dispatch thread only.
+	 */
+	public ELEMENT get(final int index) {
+		return rows.get(index);
+	}
+
+	public void dispose() {
+		list.removeObserver(this);
+	}
+
+	@Override
+	public void valuesAdded(final IObservableList<ELEMENT> list, final int index, final int length) {
+		enqueue(Change.<ELEMENT>added(index, new ArrayList<ELEMENT>(list.subList(index, index + length))));
+	}
+
+	@Override
+	public void valuesRemoved(final IObservableList<ELEMENT> list, final int index, final List<ELEMENT> oldElements) {
+		enqueue(Change.<ELEMENT>removed(index, oldElements.size()));
+	}
+
+	@Override
+	public void valueReplaced(final IObservableList<ELEMENT> list, final int index, final ELEMENT oldElement) {
+		enqueue(Change.replaced(index, list.get(index)));
+	}
+
+	@Override
+	public void run() {
+		final List<Change<ELEMENT>> changes;
+		synchronized (this) {
+			changes = pending;
+			pending = new ArrayList<Change<ELEMENT>>();
+		}
+		for (Change<ELEMENT> change : changes) {
+			switch (change.kind) {
+			case ADDED:
+				rows.addAll(change.index, change.elements);
+				listener.intervalAdded(change.index, change.index + change.length - 1);
+				break;
+			case REMOVED:
+				rows.subList(change.index, change.index + change.length).clear();
+				listener.intervalRemoved(change.index, change.index + change.length - 1);
+				break;
+			default:
+				rows.set(change.index, change.elements.get(0));
+				listener.intervalChanged(change.index, change.index);
+			}
+		}
+	}
+
+	private synchronized void enqueue(final Change<ELEMENT> change) {
+		if (pending.isEmpty()) {
+			pending.add(change);
+			SwingUtilities.invokeLater(this);
+		} else if (!pending.get(pending.size() - 1).merge(change)) {
+			pending.add(change);
+		}
+	}
+
+	public static interface IIntervalListener {
+		public void intervalAdded(int fromIndex, int toIndex);
+
+		public void intervalRemoved(int fromIndex, int toIndex);
+
+		public void intervalChanged(int fromIndex, int toIndex);
+	}
+
+	private static enum Kind {
+		ADDED, REMOVED, REPLACED;
+	}
+
+	private static final class Change<ELEMENT> {
+		private final Kind kind;
+		private int index;
+		private int length;
+		private final List<ELEMENT> elements;
+
+		private Change(final Kind kind, final int index, final int length, final List<ELEMENT> elements) {
+			this.kind = kind;
+			this.index = index;
+			this.length = length;
+			this.elements = elements;
+		}
+
+		public static <ELEMENT> Change<ELEMENT> added(final int index, final List<ELEMENT> elements) {
+			return new Change<ELEMENT>(Kind.ADDED, index, elements.size(), elements);
+		}
+
+		public static <ELEMENT> Change<ELEMENT> removed(final int index, final int length) {
+			return new Change<ELEMENT>(Kind.REMOVED, index, length, null);
+		}
+
+		public static <ELEMENT> Change<ELEMENT> replaced(final int index, final ELEMENT element) {
+			final List<ELEMENT> elements = new ArrayList<ELEMENT>(1);
+			elements.add(element);
+			return new Change<ELEMENT>(Kind.REPLACED, index, 1, elements);
+		}
+
+		/**
+		 * Merges {@code next} into this change if both together still form one interval.
+		 */
+		public boolean merge(final Change<ELEMENT> next) {
+			if (kind != next.kind) return false;
+			switch (kind) {
+			case ADDED:
+				if ((next.index < index) || (next.index > index + length)) return false;
+				elements.addAll(next.index - index, next.elements);
+				length += next.length;
+				return true;
+			case REMOVED:
+				if (next.index == index) {
+					length += next.length;
+					return true;
+				} else if (next.index + next.length == index) {
+					index = next.index;
+					length += next.length;
+					return true;
+				}
+				return false;
+			default:
+				if (next.index != index) return false;
+				elements.set(0, next.elements.get(0));
+				return true;
+			}
+		}
+	}
+}
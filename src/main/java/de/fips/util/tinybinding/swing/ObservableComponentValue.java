@@ -21,10 +21,14 @@
  */
 package de.fips.util.tinybinding.swing;
 
+import static de.fips.util.tinybinding.swing.ComponentValueDispatcher.NONE;
+import static de.fips.util.tinybinding.util.Cast.uncheckedCast;
+
 import java.awt.Container;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.swing.SwingUtilities;
-import javax.swing.SwingWorker;
 
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -38,6 +42,10 @@ import de.fips.util.tinybinding.impl.ObservableValue;
  * <p>
  * <b>Note:</b> All used listeners are added as a {@link java.lang.ref.WeakReference WeakReferences}, so they gets
  * garbage collected when the time comes.
+ * <p>
+ * Component values are handed to a shared {@link ComponentValueDispatcher}, which sets only the latest
+ * value of a burst of component events, off the event dispatch thread. In the other direction each
+ * component has at most one pending write on the event dispatch thread, which applies only the latest value.
  *
  * @param <TYPE> Type of the observed value.
  * @param <COMPONENT> Type of the observed Swing Component.
@@ -48,37 +56,88 @@ abstract class ObservableComponentValue<TYPE, COMPONENT extends Container> exten
 	@NonNull
 	@Getter(AccessLevel.PROTECTED)
 	private final COMPONENT component;
+	private static final Object READ_COMPONENT = new Object();
+
 	private volatile boolean propertyChange;
+	private final AtomicReference<Object> pendingValue = new AtomicReference<Object>(NONE);
+	private final AtomicReference<Object> pendingWrite = new AtomicReference<Object>(NONE);
+	private final AtomicInteger collapsedWrites = new AtomicInteger();
+	private final Runnable write = new Runnable() {
+		@Override
+		public void run() {
+			final TYPE value = uncheckedCast(pendingWrite.getAndSet(NONE));
+			guardedDoSet(value);
+		}
+	};
 
 	protected final void guardedUpdateValue() {
 		guardedSetValue(getComponentValue());
 	}
 
 	protected final void guardedSetValue(final TYPE value) {
-		new SwingWorker<Void, Void>() {
-			@Override
-			protected Void doInBackground() {
-				propertyChange = true;
-				set(value);
-				propertyChange = false;
-				return null;
-			}
-		}.execute();
+		if (value == NONE) return;
+		if (pendingValue.getAndSet(value) == NONE) {
+			ComponentValueDispatcher.dispatch(this);
+		}
+	}
+
+	/**
+	 * Like {@link #guardedUpdateValue()}, but reads the component value on the {@link ComponentValueDispatcher}
+	 * thread, once per burst of events. Only for components whose value can be read off the event dispatch thread.
+	 */
+	protected final void deferredUpdateValue() {
+		if (pendingValue.getAndSet(READ_COMPONENT) == NONE) {
+			ComponentValueDispatcher.dispatch(this);
+		}
+	}
+
+	/** Called by the {@link ComponentValueDispatcher} */
+	final void applyPendingValue() {
+		final Object pending = pendingValue.getAndSet(NONE);
+		final TYPE value;
+		if (pending == READ_COMPONENT) {
+			value = getComponentValue();
+		} else {
+			value = uncheckedCast(pending);
+		}
+		if (value == NONE) return;
+		propertyChange = true;
+		try {
+			set(value);
+		} finally {
+			propertyChange = false;
+		}
 	}
 
 	protected abstract TYPE getComponentValue();
 
+	/**
+	 * @return the value {@link #getComponentValue()} returns if the component value can't be read right now,
+	 *         the update gets dropped then.
+	 */
+	protected final TYPE noComponentValue() {
+		return uncheckedCast(NONE);
+	}
+
 	@Override
 	protected final void doSet(final TYPE value) {
 		if (!propertyChange) {
-			SwingUtilities.invokeLater(new Runnable() {
-				@Override
-				public void run() {
-					guardedDoSet(value);
-				}
-			});
+			if (pendingWrite.getAndSet(value) == NONE) {
+				ComponentWriteCounters.scheduled();
+				SwingUtilities.invokeLater(write);
+			} else {
+				collapsedWrites.incrementAndGet();
+				ComponentWriteCounters.collapsed();
+			}
 		}
 	}
 
+	/**
+	 * @return the number of values of this component that replaced the value of an already pending write.
+	 */
+	final int getCollapsedWrites() {
+		return collapsedWrites.get();
+	}
+
 	protected abstract void guardedDoSet(final TYPE value);
 }
\ No newline at end of file
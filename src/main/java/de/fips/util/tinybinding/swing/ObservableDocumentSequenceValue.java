@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.swing;
+
+import javax.swing.text.JTextComponent;
+
+/**
+ * {@link de.fips.util.tinybinding.impl.ObservableValue ObservableValue} that wraps the document text of a {@link JTextComponent}
+ * as a {@link CharSequence}. The text is copied once per burst of document events, and only a changed text
+ * notifies the observers.
+ * <p>
+ * <b>Note:</b> All used listeners are added as a {@link java.lang.ref.WeakReference WeakReferences}, so they gets
+ * garbage collected when the time comes.
+ *
+ * @see ObservableTextComponentValue
+ * @see DocumentCharSequence
+ * @author Philipp Eichhorn
+ */
+class ObservableDocumentSequenceValue extends ObservableTextComponentValue<CharSequence> {
+
+	public ObservableDocumentSequenceValue(final JTextComponent component) {
+		super(component);
+	}
+
+	@Override
+	public CharSequence getComponentValue() {
+		final CharSequence text = DocumentCharSequence.snapshotOf(getDocument());
+		return (text == null) ? noComponentValue() : text;
+	}
+}
@@ -21,13 +21,6 @@
  */
 package de.fips.util.tinybinding.swing;
 
-import static de.fips.util.tinybinding.WeakListeners.addWeak;
-
-import java.beans.PropertyChangeEvent;
-import java.beans.PropertyChangeListener;
-
-import javax.swing.event.DocumentEvent;
-import javax.swing.event.DocumentListener;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.Document;
 import javax.swing.text.JTextComponent;
@@ -35,64 +28,47 @@ import javax.swing.text.JTextComponent;
 /**
  * {@link de.fips.util.tinybinding.impl.ObservableValue ObservableValue} that can wrap the document text of a {@link JTextComponent}.
  * <p>
+ * The text is read under the read lock of {@link Document#render(Runnable)}, so it may be read off the
+ * event dispatch thread without seeing a half-applied edit.
+ * <p>
  * <b>Note:</b> All used listeners are added as a {@link java.lang.ref.WeakReference WeakReferences}, so they gets
  * garbage collected when the time comes.
  *
- * @see DocumentListener
- * @see PropertyChangeListener
+ * @see ObservableTextComponentValue
  * @author Philipp Eichhorn
  */
-class ObservableDocumentValue extends ObservableComponentValue<String, JTextComponent> implements DocumentListener, PropertyChangeListener {
-	private Document document;
-	private DocumentListener weakDocumentListener;
+class ObservableDocumentValue extends ObservableTextComponentValue<String> {
 
 	public ObservableDocumentValue(final JTextComponent component) {
 		super(component);
-		addWeak(PropertyChangeListener.class, this).withPropertyName("document").toTarget(getComponent());
-		document = getComponent().getDocument();
-		weakDocumentListener = addWeak(DocumentListener.class, this).toTarget(document);
-		guardedUpdateValue();
-	}
-
-	@Override
-	public void changedUpdate(final DocumentEvent event) {
-		guardedUpdateValue();
-	}
-
-	@Override
-	public void insertUpdate(final DocumentEvent event) {
-		guardedUpdateValue();
 	}
 
 	@Override
-	public void removeUpdate(final DocumentEvent event) {
-		guardedUpdateValue();
+	public String getComponentValue() {
+		final Document document = getDocument();
+		final TextReader reader = new TextReader(document);
+		document.render(reader);
+		return (reader.text == null) ? noComponentValue() : reader.text;
 	}
 
-	@Override
-	public void propertyChange(final PropertyChangeEvent event) {
-		document.removeDocumentListener(weakDocumentListener);
-		document = (Document) event.getNewValue();
-		weakDocumentListener = addWeak(DocumentListener.class, this).toTarget(document);
-		guardedUpdateValue();
-	}
+	/**
+	 * Reads the text while {@link Document#render(Runnable)} holds the read lock.
+	 */
+	private static class TextReader implements Runnable {
+		private final Document document;
+		private String text;
 
-	@Override
-	protected void guardedDoSet(final String value) {
-		try {
-			document.remove(0, document.getLength());
-			document.insertString(0, value, null);
-		} catch (BadLocationException e) {
-			// ignore
+		public TextReader(final Document document) {
+			this.document = document;
 		}
-	}
 
-	@Override
-	public String getComponentValue() {
-		try {
-			return document.getText(0, document.getLength());
-		} catch (BadLocationException e) {
-			return null;
+		@Override
+		public void run() {
+			try {
+				text = document.getText(0, document.getLength());
+			} catch (BadLocationException e) {
+				// ignore
+			}
 		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.swing;
+
+import javax.swing.AbstractListModel;
+import javax.swing.ListModel;
+
+import de.fips.util.tinybinding.IObservableList;
+
+/**
+ * {@link ListModel} that shows the elements of an {@link IObservableList}.
+ * <p>
+ * Changes of the list are applied on the event dispatch thread, once per event dispatch cycle, and reported as
+ * the exact intervals that were added, removed or changed. The list keeps the model registered until
+ * {@link #dispose()} is called.
+ *
+ * @author Philipp Eichhorn
+ */
+public class ObservableListModel<ELEMENT> extends AbstractListModel implements ListModelMirror.IIntervalListener {
+	private static final long serialVersionUID = 1L;
+
+	private final transient ListModelMirror<ELEMENT> rows;
+
+	public ObservableListModel(final IObservableList<ELEMENT> list) {
+		rows = new ListModelMirror<ELEMENT>(list, this);
+	}
+
+	@Override
+	public int getSize() {
+		return rows.size();
+	}
+
+	@Override
+	public ELEMENT getElementAt(final int index) {
+		return rows.get(index);
+	}
+
+	/**
+	 * Stops observing the list.
+	 */
+	public void dispose() {
+		rows.dispose();
+	}
+
+	@Override
+	public void intervalAdded(final int fromIndex, final int toIndex) {
+		fireIntervalAdded(this, fromIndex, toIndex);
+	}
+
+	@Override
+	public void intervalRemoved(final int fromIndex, final int toIndex) {
+		fireIntervalRemoved(this, fromIndex, toIndex);
+	}
+
+	@Override
+	public void intervalChanged(final int fromIndex, final int toIndex) {
+		fireContentsChanged(this, fromIndex, toIndex);
+	}
+}
@@ -21,10 +21,7 @@
  */
 package de.fips.util.tinybinding.swing;
 
-import static org.fest.reflect.core.Reflection.*;
 import static de.fips.util.tinybinding.WeakListeners.addWeak;
-import static de.fips.util.tinybinding.util.Cast.uncheckedCast;
-import static de.fips.util.tinybinding.util.Reflection.*;
 
 import java.awt.Container;
 import java.beans.PropertyChangeEvent;
@@ -33,9 +30,8 @@ import java.beans.PropertyChangeListener;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
-import org.fest.reflect.beanproperty.Invoker;
-import org.fest.reflect.exception.ReflectionError;
-
+import de.fips.util.tinybinding.IPropertyAccessor;
+import de.fips.util.tinybinding.PropertyAccessors;
 import de.fips.util.tinybinding.util.Cast;
 
 /**
@@ -50,13 +46,11 @@ import de.fips.util.tinybinding.util.Cast;
  * @author Philipp Eichhorn
  */
 class ObservablePropertyValue<TYPE> extends ObservableComponentValue<TYPE, Container> implements PropertyChangeListener, ChangeListener {
-	private final String propertyName;
-	private final Class<TYPE> propertyType;
+	private final IPropertyAccessor<TYPE> accessor;
 
 	public ObservablePropertyValue(final String propertyName, final Class<TYPE> propertyType, final Container component) {
 		super(component);
-		this.propertyName = propertyName;
-		this.propertyType = propertyType;
+		accessor = PropertyAccessors.of(component.getClass(), propertyName, propertyType);
 		try {
 			addWeak(PropertyChangeListener.class, this).withPropertyName(propertyName).toTarget(getComponent());
 		} catch (IllegalStateException e) {
@@ -79,8 +73,8 @@ class ObservablePropertyValue<TYPE> extends ObservableComponentValue<TYPE, Conta
 	@Override
 	protected void guardedDoSet(final TYPE value) {
 		try {
-			if (value != null) getInvoker().set(value);
-		} catch (ReflectionError e) {
+			if (value != null) accessor.set(getComponent(), value);
+		} catch (IllegalStateException e) {
 			// ignore
 		}
 	}
@@ -88,20 +82,9 @@ class ObservablePropertyValue<TYPE> extends ObservableComponentValue<TYPE, Conta
 	@Override
 	public TYPE getComponentValue() {
 		try {
-			return getInvoker().get();
-		} catch (ReflectionError e) {
+			return accessor.get(getComponent());
+		} catch (IllegalStateException e) {
 			return null;
 		}
 	}
-
-	private Invoker<TYPE> getInvoker() {
-		try {
-			return property(propertyName).ofType(propertyType).in(getComponent());
-		} catch (ReflectionError e) {
-			if (hasPrimitive(propertyType)) {
-				final Invoker<TYPE> invoker = uncheckedCast(property(propertyName).ofType(getPrimitive(propertyType)).in(getComponent()));
-				return invoker;
-			} else throw e;
-		}
-	}
 }
\ No newline at end of file
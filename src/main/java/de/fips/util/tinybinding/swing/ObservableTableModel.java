@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.swing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableModel;
+
+import de.fips.util.tinybinding.IConverter;
+import de.fips.util.tinybinding.IObservableList;
+
+/**
+ * {@link TableModel} that shows one row per element of an {@link IObservableList}, with columns defined by
+ * {@link #column(String, IConverter)}.
+ * <p>
+ * Changes of the list are applied on the event dispatch thread, once per event dispatch cycle, and reported as
+ * the exact rows that were inserted, deleted or updated. The list keeps the model registered until
+ * {@link #dispose()} is called.
+ *
+ * @author Philipp Eichhorn
+ */
+public class ObservableTableModel<ELEMENT> extends AbstractTableModel implements ListModelMirror.IIntervalListener {
+	private static final long serialVersionUID = 1L;
+
+	private final transient ListModelMirror<ELEMENT> rows;
+	private final List<String> columnNames = new ArrayList<String>();
+	private final transient List<IConverter<? super ELEMENT, ?>> columnValues = new ArrayList<IConverter<? super ELEMENT, ?>>();
+
+	public ObservableTableModel(final IObservableList<ELEMENT> list) {
+		rows = new ListModelMirror<ELEMENT>(list, this);
+	}
+
+	/**
+	 * Adds a column named {@code name}, that shows the result of {@code value} for each row.
+	 */
+	public ObservableTableModel<ELEMENT> column(final String name, final IConverter<? super ELEMENT, ?> value) {
+		columnNames.add(name);
+		columnValues.add(value);
+		fireTableStructureChanged();
+		return this;
+	}
+
+	@Override
+	public int getRowCount() {
+		return rows.size();
+	}
+
+	@Override
+	public int getColumnCount() {
+		return columnNames.size();
+	}
+
+	@Override
+	public String getColumnName(final int columnIndex) {
+		return columnNames.get(columnIndex);
+	}
+
+	@Override
+	public Object getValueAt(final int rowIndex, final int columnIndex) {
+		return columnValues.get(columnIndex).convert(rows.get(rowIndex));
+	}
+
+	public ELEMENT getRow(final int rowIndex) {
+		return rows.get(rowIndex);
+	}
+
+	/**
+	 * Stops observing the list.
+	 */
+	public void dispose() {
+		rows.dispose();
+	}
+
+	@Override
+	public void intervalAdded(final int fromIndex, final int toIndex) {
+		fireTableRowsInserted(fromIndex, toIndex);
+	}
+
+	@Override
+	public void intervalRemoved(final int fromIndex, final int toIndex) {
+		fireTableRowsDeleted(fromIndex, toIndex);
+	}
+
+	@Override
+	public void intervalChanged(final int fromIndex, final int toIndex) {
+		fireTableRowsUpdated(fromIndex, toIndex);
+	}
+}
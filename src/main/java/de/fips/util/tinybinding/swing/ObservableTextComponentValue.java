@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.swing;
+
+import static de.fips.util.tinybinding.WeakListeners.addWeak;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.JTextComponent;
+import javax.swing.text.Segment;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Base class for {@link de.fips.util.tinybinding.impl.ObservableValue ObservableValues} that wrap the document text of a {@link JTextComponent}.
+ * <p>
+ * Document events only mark the value as outdated, the text is read once per burst of events by the
+ * {@link ComponentValueDispatcher}. Writes only replace the region between the common prefix and suffix
+ * of the old and the new text, instead of the whole document.
+ * <p>
+ * <b>Note:</b> All used listeners are added as a {@link java.lang.ref.WeakReference WeakReferences}, so they gets
+ * garbage collected when the time comes.
+ *
+ * @see DocumentListener
+ * @see PropertyChangeListener
+ * @param <TYPE> Type of the observed value.
+ * @author Philipp Eichhorn
+ */
+abstract class ObservableTextComponentValue<TYPE extends CharSequence> extends ObservableComponentValue<TYPE, JTextComponent> implements DocumentListener, PropertyChangeListener {
+	@Getter(AccessLevel.PROTECTED)
+	private volatile Document document;
+	private DocumentListener weakDocumentListener;
+
+	public ObservableTextComponentValue(final JTextComponent component) {
+		super(component);
+		addWeak(PropertyChangeListener.class, this).withPropertyName("document").toTarget(getComponent());
+		document = getComponent().getDocument();
+		weakDocumentListener = addWeak(DocumentListener.class, this).toTarget(document);
+		deferredUpdateValue();
+	}
+
+	@Override
+	public void changedUpdate(final DocumentEvent event) {
+		deferredUpdateValue();
+	}
+
+	@Override
+	public void insertUpdate(final DocumentEvent event) {
+		deferredUpdateValue();
+	}
+
+	@Override
+	public void removeUpdate(final DocumentEvent event) {
+		deferredUpdateValue();
+	}
+
+	@Override
+	public void propertyChange(final PropertyChangeEvent event) {
+		document.removeDocumentListener(weakDocumentListener);
+		document = (Document) event.getNewValue();
+		weakDocumentListener = addWeak(DocumentListener.class, this).toTarget(document);
+		deferredUpdateValue();
+	}
+
+	@Override
+	protected void guardedDoSet(final TYPE value) {
+		try {
+			replaceChangedRegion(document, value);
+		} catch (BadLocationException e) {
+			// ignore
+		}
+	}
+
+	static void replaceChangedRegion(final Document document, final CharSequence value) throws BadLocationException {
+		final int length = document.getLength();
+		final int newLength = (value == null) ? 0 : value.length();
+		final Segment segment = new Segment();
+		document.getText(0, length, segment);
+		final int max = Math.min(length, newLength);
+		int prefix = 0;
+		while ((prefix < max) && (segment.array[segment.offset + prefix] == value.charAt(prefix))) {
+			prefix++;
+		}
+		int suffix = 0;
+		while ((suffix < max - prefix) && (segment.array[segment.offset + length - 1 - suffix] == value.charAt(newLength - 1 - suffix))) {
+			suffix++;
+		}
+		final int removeLength = length - prefix - suffix;
+		final String insert = (value == null) ? "" : value.subSequence(prefix, newLength - suffix).toString();
+		if (document instanceof AbstractDocument) {
+			((AbstractDocument) document).replace(prefix, removeLength, insert, null);
+		} else {
+			if (removeLength > 0) {
+				document.remove(prefix, removeLength);
+			}
+			if (!insert.isEmpty()) {
+				document.insertString(prefix, insert, null);
+			}
+		}
+	}
+}
@@ -82,6 +82,20 @@ public final class SwingObservable {
 		}
 	}
 
+	/**
+	 * Like {@link #text()}, but the value is a {@link CharSequence} snapshot of the document, copied straight from
+	 * the document content once per burst of edits. Its sub sequences share the copied characters.
+	 *
+	 * @throws IllegalArgumentException if the observed component is no {@link JTextComponent}.
+	 */
+	public IObservableValue<CharSequence> textSequence() {
+		if (source instanceof JTextComponent) {
+			return new ObservableDocumentSequenceValue((JTextComponent) source);
+		} else {
+			throw new IllegalArgumentException("textSequence() needs a JTextComponent");
+		}
+	}
+
 	public IObservableValue<String> tooltip() {
 		return new ObservablePropertyValue<String>("ToolTipText", String.class, source);
 	}
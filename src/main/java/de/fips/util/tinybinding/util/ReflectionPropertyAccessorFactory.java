@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.util;
+
+import java.lang.reflect.Method;
+
+import de.fips.util.tinybinding.IPropertyAccessor;
+import de.fips.util.tinybinding.IPropertyAccessorFactory;
+
+/**
+ * Creates {@link ReflectionPropertyAccessor ReflectionPropertyAccessors}.
+ * <p>
+ * Getters and setters are made accessible, so the reflective calls skip the access checks.
+ *
+ * @author Philipp Eichhorn
+ */
+public final class ReflectionPropertyAccessorFactory implements IPropertyAccessorFactory {
+
+	@Override
+	public <TYPE> IPropertyAccessor<TYPE> create(final String propertyName, final Method getter, final Method setter) {
+		return new ReflectionPropertyAccessor<TYPE>(propertyName, accessible(getter), accessible(setter));
+	}
+
+	private static Method accessible(final Method method) {
+		if (method != null) try {
+			method.setAccessible(true);
+		} catch (SecurityException ignore) {
+			// plain reflection still works for public methods
+		}
+		return method;
+	}
+}
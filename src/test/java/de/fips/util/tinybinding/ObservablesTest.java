@@ -21,17 +21,21 @@
  */
 package de.fips.util.tinybinding;
 
+import static de.fips.util.tinybinding.Observables.batch;
 import static de.fips.util.tinybinding.Observables.observe;
+import static de.fips.util.tinybinding.util.Cast.uncheckedCast;
 import static org.fest.assertions.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 import java.awt.Container;
 
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import de.fips.util.tinybinding.impl.Observable;
+import de.fips.util.tinybinding.junit.ExpectedException;
 import de.fips.util.tinybinding.pojo.PojoObservable;
 import de.fips.util.tinybinding.swing.SwingObservable;
 
@@ -40,6 +44,8 @@ import de.fips.util.tinybinding.swing.SwingObservable;
  */
 @RunWith(JUnit4.class)
 public class ObservablesTest {
+	@Rule
+	public final ExpectedException thrown = ExpectedException.none();
 
 	@Test
 	public void test_observeContainerCreatesSwingObservable() {
@@ -55,4 +61,122 @@ public class ObservablesTest {
 	public void test_observeCreatesObservable() {
 		assertThat(observe()).isInstanceOf(Observable.class);
 	}
+
+	@Test
+	public void test_batchNotifiesOncePerValue() {
+		final IObservableValue<String> first = observe().value("a");
+		final IObservableValue<String> second = observe().value("x");
+		final IValueObserver<String> firstObserver = uncheckedCast(mock(IValueObserver.class));
+		final IValueObserver<String> secondObserver = uncheckedCast(mock(IValueObserver.class));
+		first.addObserver(firstObserver, false);
+		second.addObserver(secondObserver, false);
+		batch(new Runnable() {
+			@Override
+			public void run() {
+				first.set("b");
+				second.set("y");
+				first.set("c");
+				assertThat(first.get()).isEqualTo("c");
+				verifyZeroInteractions(firstObserver, secondObserver);
+			}
+		});
+		verify(firstObserver).valueChanged("c", "a");
+		verify(secondObserver).valueChanged("y", "x");
+		verifyNoMoreInteractions(firstObserver, secondObserver);
+	}
+
+	@Test
+	public void test_batchSkipsValuesThatChangedBack() {
+		final IObservableValue<String> value = observe().value("a");
+		final IValueObserver<String> observer = uncheckedCast(mock(IValueObserver.class));
+		value.addObserver(observer, false);
+		batch(new Runnable() {
+			@Override
+			public void run() {
+				value.set("b");
+				value.set("a");
+			}
+		});
+		verifyZeroInteractions(observer);
+	}
+
+	@Test
+	public void test_nestedBatchJoinsOuterBatch() {
+		final IObservableValue<String> value = observe().value("a");
+		final IValueObserver<String> observer = uncheckedCast(mock(IValueObserver.class));
+		value.addObserver(observer, false);
+		batch(new Runnable() {
+			@Override
+			public void run() {
+				batch(new Runnable() {
+					@Override
+					public void run() {
+						value.set("b");
+					}
+				});
+				verifyZeroInteractions(observer);
+				value.set("c");
+			}
+		});
+		verify(observer).valueChanged("c", "a");
+		verifyNoMoreInteractions(observer);
+	}
+
+	@Test
+	public void test_batchNotifiesWhenBatchFails() {
+		final IObservableValue<String> value = observe().value("a");
+		final IValueObserver<String> observer = uncheckedCast(mock(IValueObserver.class));
+		value.addObserver(observer, false);
+		thrown.expect(IllegalStateException.class);
+		try {
+			batch(new Runnable() {
+				@Override
+				public void run() {
+					value.set("b");
+					throw new IllegalStateException();
+				}
+			});
+		} finally {
+			verify(observer).valueChanged("b", "a");
+		}
+	}
+
+	@Test
+	public void test_batchNotifiesAllValuesWhenAnObserverFails() {
+		final IObservableValue<String> first = observe().value("a");
+		final IObservableValue<String> second = observe().value("x");
+		final IValueObserver<String> firstObserver = uncheckedCast(mock(IValueObserver.class));
+		final IValueObserver<String> secondObserver = uncheckedCast(mock(IValueObserver.class));
+		doThrow(new IllegalStateException()).when(firstObserver).valueChanged("b", "a");
+		first.addObserver(firstObserver, false);
+		second.addObserver(secondObserver, false);
+		thrown.expect(IllegalStateException.class);
+		try {
+			batch(new Runnable() {
+				@Override
+				public void run() {
+					first.set("b");
+					second.set("y");
+				}
+			});
+		} finally {
+			verify(secondObserver).valueChanged("y", "x");
+		}
+	}
+
+	@Test
+	public void test_batchKeepsExceptionOfFailedBatch() {
+		final IObservableValue<String> value = observe().value("a");
+		final IValueObserver<String> observer = uncheckedCast(mock(IValueObserver.class));
+		doThrow(new IllegalStateException()).when(observer).valueChanged("b", "a");
+		value.addObserver(observer, false);
+		thrown.expect(IllegalArgumentException.class);
+		batch(new Runnable() {
+			@Override
+			public void run() {
+				value.set("b");
+				throw new IllegalArgumentException();
+			}
+		});
+	}
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+
+import lombok.Data;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import de.fips.util.tinybinding.junit.ExpectedException;
+
+/**
+ * Tests {@link PropertyAccessors}.
+ */
+@RunWith(JUnit4.class)
+public class PropertyAccessorsTest {
+	@Rule
+	public final ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void test_accessorsAreCached() {
+		IPropertyAccessor<String> accessor = PropertyAccessors.of(TestPojo.class, "text", String.class);
+		assertThat(PropertyAccessors.of(TestPojo.class, "text", String.class)).isSameAs(accessor);
+	}
+
+	@Test
+	public void test_getAndSet() {
+		TestPojo pojo = new TestPojo();
+		IPropertyAccessor<String> accessor = PropertyAccessors.of(TestPojo.class, "text", String.class);
+		accessor.set(pojo, "42");
+		assertThat(pojo.getText()).isEqualTo("42");
+		assertThat(accessor.get(pojo)).isEqualTo("42");
+	}
+
+	@Test
+	public void test_getAndSet_primitive() {
+		TestPojo pojo = new TestPojo();
+		IPropertyAccessor<Boolean> accessor = PropertyAccessors.of(TestPojo.class, "bool", Boolean.class);
+		accessor.set(pojo, Boolean.TRUE);
+		assertThat(pojo.isBool()).isTrue();
+		assertThat(accessor.get(pojo).booleanValue()).isTrue();
+	}
+
+	@Test
+	public void test_unknownPropertyIsNeitherReadableNorWritable() {
+		IPropertyAccessor<String> accessor = PropertyAccessors.of(TestPojo.class, "unknown", String.class);
+		assertThat(accessor.isReadable()).isFalse();
+		assertThat(accessor.isWritable()).isFalse();
+		thrown.expect(IllegalStateException.class);
+		accessor.get(new TestPojo());
+	}
+
+	@Test
+	public void test_wrongTypeIsNeitherReadableNorWritable() {
+		IPropertyAccessor<Integer> accessor = PropertyAccessors.of(TestPojo.class, "text", Integer.class);
+		assertThat(accessor.isReadable()).isFalse();
+		assertThat(accessor.isWritable()).isFalse();
+	}
+
+	@Test
+	public void test_factoryIsUsedForNewAccessors() {
+		final IPropertyAccessor<String> accessor = PropertyAccessors.of(TestPojo.class, "text", String.class);
+		try {
+			PropertyAccessors.setFactory(new IPropertyAccessorFactory() {
+				@Override
+				public <TYPE> IPropertyAccessor<TYPE> create(final String propertyName, final Method getter, final Method setter) {
+					return PropertyAccessors.reflection().create(propertyName, getter, null);
+				}
+			});
+			IPropertyAccessor<String> readOnlyAccessor = PropertyAccessors.of(TestPojo.class, "text", String.class);
+			assertThat(readOnlyAccessor).isNotSameAs(accessor);
+			assertThat(readOnlyAccessor.isReadable()).isTrue();
+			assertThat(readOnlyAccessor.isWritable()).isFalse();
+		} finally {
+			PropertyAccessors.setFactory(PropertyAccessors.reflection());
+		}
+	}
+
+	@Test
+	public void test_fallsBackToReflectionIfFactoryFails() {
+		try {
+			PropertyAccessors.setFactory(new IPropertyAccessorFactory() {
+				@Override
+				public <TYPE> IPropertyAccessor<TYPE> create(final String propertyName, final Method getter, final Method setter) {
+					return null;
+				}
+			});
+			IPropertyAccessor<String> accessor = PropertyAccessors.of(TestPojo.class, "text", String.class);
+			assertThat(accessor.isReadable()).isTrue();
+			assertThat(accessor.isWritable()).isTrue();
+		} finally {
+			PropertyAccessors.setFactory(PropertyAccessors.reflection());
+		}
+	}
+
+	@Data
+	public static class TestPojo {
+		private String text;
+		private boolean bool;
+	}
+}
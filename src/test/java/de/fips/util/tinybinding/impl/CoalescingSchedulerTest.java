@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests {@link CoalescingScheduler}.
+ */
+@RunWith(JUnit4.class)
+public class CoalescingSchedulerTest {
+	private QueueExecutor executor;
+	private Runnable update;
+	private Runnable trigger;
+
+	@Before
+	public void setUp() {
+		executor = new QueueExecutor();
+		update = mock(Runnable.class);
+		trigger = new CoalescingScheduler(executor).attach(update);
+	}
+
+	@Test
+	public void test_triggersArePropagatedOnTheExecutor() {
+		trigger.run();
+		verifyZeroInteractions(update);
+		assertThat(executor.tasks.size()).isEqualTo(1);
+		executor.runAll();
+		verify(update, times(1)).run();
+	}
+
+	@Test
+	public void test_pendingTriggersAreCoalesced() {
+		trigger.run();
+		trigger.run();
+		trigger.run();
+		assertThat(executor.tasks.size()).isEqualTo(1);
+		executor.runAll();
+		verify(update, times(1)).run();
+	}
+
+	@Test
+	public void test_triggerDuringUpdateSchedulesOneFollowUp() {
+		final Runnable reentrantUpdate = new Runnable() {
+			private int runs;
+
+			@Override
+			public void run() {
+				if (runs++ == 0) {
+					trigger.run();
+					trigger.run();
+				}
+			}
+		};
+		trigger = new CoalescingScheduler(executor).attach(reentrantUpdate);
+		trigger.run();
+		executor.runNext();
+		assertThat(executor.tasks.size()).isEqualTo(1);
+		executor.runNext();
+		assertThat(executor.tasks).isEmpty();
+	}
+
+	@Test
+	public void test_triggerAfterFailedUpdateIsPropagated() {
+		doThrow(new IllegalStateException()).doNothing().when(update).run();
+		trigger.run();
+		try {
+			executor.runNext();
+		} catch (IllegalStateException expected) {
+		}
+		trigger.run();
+		executor.runAll();
+		verify(update, times(2)).run();
+	}
+
+	private static class QueueExecutor implements Executor {
+		private final Queue<Runnable> tasks = new LinkedList<Runnable>();
+
+		@Override
+		public void execute(final Runnable task) {
+			tasks.add(task);
+		}
+
+		public void runNext() {
+			tasks.remove().run();
+		}
+
+		public void runAll() {
+			while (!tasks.isEmpty()) {
+				runNext();
+			}
+		}
+	}
+}
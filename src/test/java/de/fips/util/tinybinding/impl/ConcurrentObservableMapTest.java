@@ -0,0 +1,271 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import static de.fips.util.tinybinding.Observables.observe;
+import static de.fips.util.tinybinding.util.Cast.uncheckedCast;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import de.fips.util.tinybinding.IMapObserver;
+import de.fips.util.tinybinding.IObservableConcurrentMap;
+import de.fips.util.tinybinding.IObservableMap;
+import de.fips.util.tinybinding.IObservableValue;
+import de.fips.util.tinybinding.IValueObserver;
+import de.fips.util.tinybinding.MapObserverAdapter;
+
+/**
+ * Tests {@link ConcurrentObservableMap}.
+ */
+@RunWith(JUnit4.class)
+public class ConcurrentObservableMapTest {
+	private static final int THREADS = 8;
+	private static final int KEYS = 4;
+	private static final int INCREMENTS_PER_THREAD = 5000;
+
+	private IObservableConcurrentMap<String, Integer> map;
+	private Map<String, List<String>> eventsByKey;
+
+	@Before
+	public void setUp() {
+		map = observe().concurrentMap(new ConcurrentHashMap<String, Integer>());
+		eventsByKey = new ConcurrentHashMap<String, List<String>>();
+		map.addObserver(new MapObserverAdapter<String, Integer>() {
+			@Override
+			public void valueAdded(final IObservableMap<String, Integer> map, final String key) {
+				events(key).add("added");
+			}
+
+			@Override
+			public void valueChanged(final IObservableMap<String, Integer> map, final String key, final Integer lastValue) {
+				events(key).add("changed " + lastValue);
+			}
+
+			@Override
+			public void valueRemoved(final IObservableMap<String, Integer> map, final String key, final Integer value) {
+				events(key).add("removed " + value);
+			}
+		});
+	}
+
+	@Test
+	public void test_eventsCarryTruePreviousValues() {
+		assertThat((Object) map.putIfAbsent("a", 1)).isNull();
+		assertThat(map.putIfAbsent("a", 2)).isEqualTo(1);
+		assertThat(map.put("a", 3)).isEqualTo(1);
+		assertThat(map.replace("a", 2, 4)).isFalse();
+		assertThat(map.replace("a", 3, 4)).isTrue();
+		assertThat((Object) map.replace("b", 1)).isNull();
+		assertThat(map.remove("a", 3)).isFalse();
+		assertThat(map.remove("a")).isEqualTo(4);
+		assertThat((Object) map.remove("a")).isNull();
+		assertThat(events("a")).isEqualTo(asList("added", "changed 1", "changed 3", "removed 4"));
+		assertThat(eventsByKey.containsKey("b")).isFalse();
+	}
+
+	@Test
+	public void test_clearAndEntrySetRemoveFireEvents() {
+		map.put("a", 1);
+		map.put("b", 2);
+		map.entrySet().remove(new AbstractMap.SimpleEntry<String, Integer>("a", 1));
+		map.clear();
+		assertThat(map).isEmpty();
+		assertThat(events("a")).isEqualTo(asList("added", "removed 1"));
+		assertThat(events("b")).isEqualTo(asList("added", "removed 2"));
+	}
+
+	@Test
+	public void test_bulkOperationsFireOneEventPerStripe() {
+		final IObservableConcurrentMap<String, Integer> map = new ConcurrentObservableMap<String, Integer>(new ConcurrentHashMap<String, Integer>(), 1);
+		map.put("a", 1);
+		final IMapObserver<String, Integer> observer = uncheckedCast(mock(IMapObserver.class));
+		map.addObserver(observer);
+		final List<String> keyEvents = new ArrayList<String>();
+		map.observeKey("a").addObserver(new IValueObserver<Integer>() {
+			@Override
+			public void valueChanged(final Integer value, final Integer oldValue) {
+				keyEvents.add(oldValue + " -> " + value);
+			}
+		}, false);
+		final Map<String, Integer> entries = new LinkedHashMap<String, Integer>();
+		entries.put("a", 2);
+		entries.put("b", 3);
+		map.putAll(entries);
+		verify(observer, times(1)).entriesAdded(eq(map), eq(singleton("b")));
+		verify(observer, times(1)).entriesChanged(eq(map), eq(singletonMap("a", 1)));
+		map.clear();
+		assertThat(map).isEmpty();
+		verify(observer, times(1)).entriesRemoved(eq(map), eq(entries));
+		verifyNoMoreInteractions(observer);
+		assertThat(keyEvents).isEqualTo(asList("1 -> 2", "2 -> null"));
+	}
+
+	@Test
+	public void test_observeKeyGetsTheChangesOfItsKey() {
+		final List<String> keyEvents = new ArrayList<String>();
+		map.observeKey("a").addObserver(new IValueObserver<Integer>() {
+			@Override
+			public void valueChanged(final Integer value, final Integer oldValue) {
+				keyEvents.add(oldValue + " -> " + value);
+			}
+		}, false);
+		map.put("a", 1);
+		map.put("b", 2);
+		map.replace("a", 1, 3);
+		map.observeKey("a").set(4);
+		map.observeKey("a").set(null);
+		assertThat(map.containsKey("a")).isFalse();
+		map.put("a", 5);
+		map.clear();
+		assertThat(keyEvents).isEqualTo(asList("null -> 1", "1 -> 3", "3 -> 4", "4 -> null", "null -> 5", "5 -> null"));
+	}
+
+	@Test
+	public void test_observeKeySetsAtomically() {
+		final IObservableConcurrentMap<String, Integer> concurrentMap = uncheckedCast(mock(IObservableConcurrentMap.class));
+		when(concurrentMap.get("a")).thenReturn(1, 2, 3, null, 5);
+		when(concurrentMap.replace("a", 1, 4)).thenReturn(false);
+		when(concurrentMap.replace("a", 2, 4)).thenReturn(true);
+		when(concurrentMap.remove("a", 3)).thenReturn(true);
+		when(concurrentMap.putIfAbsent("a", 6)).thenReturn(5);
+		when(concurrentMap.replace("a", 5, 6)).thenReturn(true);
+		final IObservableValue<Integer> value = new ObservableMapKeyValue<String, Integer>(concurrentMap, "a", new KeyObserverIndex<Integer>());
+		assertThat(value.set(4)).isTrue();
+		verify(concurrentMap).replace("a", 2, 4);
+		assertThat(value.set(null)).isTrue();
+		verify(concurrentMap).remove("a", 3);
+		assertThat(value.set(6)).isTrue();
+		verify(concurrentMap).putIfAbsent("a", 6);
+		verify(concurrentMap).replace("a", 5, 6);
+		verify(concurrentMap, never()).put(anyString(), anyInt());
+		verify(concurrentMap, never()).remove(anyString());
+	}
+
+	@Test
+	public void test_stripeKeepsDeliveringAfterAnObserverThrows() {
+		map.addObserver(new MapObserverAdapter<String, Integer>() {
+			@Override
+			public void valueAdded(final IObservableMap<String, Integer> map, final String key) {
+				throw new IllegalStateException();
+			}
+
+			@Override
+			public void valueChanged(final IObservableMap<String, Integer> map, final String key, final Integer lastValue) {
+			}
+
+			@Override
+			public void valueRemoved(final IObservableMap<String, Integer> map, final String key, final Integer value) {
+			}
+		});
+		try {
+			map.put("a", 1);
+		} catch (IllegalStateException expected) {
+		}
+		map.put("a", 2);
+		map.remove("a");
+		assertThat(events("a")).isEqualTo(asList("added", "changed 1", "removed 2"));
+	}
+
+	/**
+	 * Threads increment shared counters with compare-and-replace; every key must see one add and then one
+	 * change per increment, each with the value before the increment, in order.
+	 */
+	@Test
+	public void test_concurrentChangesOfAKeyAreNotifiedInOrder() throws Exception {
+		final CountDownLatch start = new CountDownLatch(1);
+		final List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < THREADS; t++) {
+			threads.add(new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int i = 0; i < INCREMENTS_PER_THREAD; i++) {
+						final String key = "key " + (i % KEYS);
+						map.putIfAbsent(key, Integer.valueOf(0));
+						while (true) {
+							final Integer value = map.get(key);
+							if (map.replace(key, value, Integer.valueOf(value.intValue() + 1))) break;
+						}
+					}
+				}
+			});
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		final int incrementsPerKey = THREADS * INCREMENTS_PER_THREAD / KEYS;
+		for (int k = 0; k < KEYS; k++) {
+			final String key = "key " + k;
+			assertThat(map.get(key).intValue()).isEqualTo(incrementsPerKey);
+			final List<String> events = events(key);
+			assertThat(events.size()).isEqualTo(incrementsPerKey + 1);
+			assertThat(events.get(0)).isEqualTo("added");
+			for (int i = 1; i < events.size(); i++) {
+				assertThat(events.get(i)).isEqualTo("changed " + (i - 1));
+			}
+		}
+	}
+
+	private List<String> events(final String key) {
+		synchronized (eventsByKey) {
+			List<String> events = eventsByKey.get(key);
+			if (events == null) {
+				events = new ArrayList<String>();
+				eventsByKey.put(key, events);
+			}
+			return events;
+		}
+	}
+}
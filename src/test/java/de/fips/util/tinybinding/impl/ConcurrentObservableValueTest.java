@@ -0,0 +1,221 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import static de.fips.util.tinybinding.Observables.observe;
+import static java.util.Arrays.asList;
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import de.fips.util.tinybinding.IObservableValue;
+import de.fips.util.tinybinding.IValueObserver;
+
+/**
+ * Tests {@link ConcurrentObservableValue}.
+ */
+@RunWith(JUnit4.class)
+public class ConcurrentObservableValueTest {
+	private static final int THREADS = 8;
+	private static final int SETS_PER_THREAD = 20000;
+
+	@Test
+	public void test_setNotifiesOnlyChanges() {
+		final IObservableValue<String> value = observe().concurrentValue("a");
+		final List<String> events = new ArrayList<String>();
+		value.addObserver(new IValueObserver<String>() {
+			@Override
+			public void valueChanged(final String newValue, final String oldValue) {
+				events.add(oldValue + "->" + newValue);
+			}
+		}, false);
+		assertThat(value.set("a")).isFalse();
+		assertThat(value.set("b")).isTrue();
+		assertThat(value.set(null)).isTrue();
+		assertThat(value.set(null)).isFalse();
+		assertThat(events).isEqualTo(asList("a->b", "b->null"));
+	}
+
+	@Test
+	public void test_observerSettingTheValueDoesNotRecurse() {
+		final IObservableValue<Integer> value = observe().concurrentValue(Integer.valueOf(0));
+		final List<String> events = new ArrayList<String>();
+		value.addObserver(new IValueObserver<Integer>() {
+			@Override
+			public void valueChanged(final Integer newValue, final Integer oldValue) {
+				events.add("begin " + newValue);
+				if (newValue.intValue() < 3) value.set(Integer.valueOf(newValue.intValue() + 1));
+				events.add("end " + newValue);
+			}
+		}, false);
+		value.set(Integer.valueOf(1));
+		assertThat(events).isEqualTo(asList("begin 1", "end 1", "begin 2", "end 2", "begin 3", "end 3"));
+	}
+
+	@Test
+	public void test_throwingObserverDoesNotStopLaterNotifications() {
+		final IObservableValue<String> value = observe().concurrentValue("a");
+		final List<String> events = new ArrayList<String>();
+		value.addObserver(new IValueObserver<String>() {
+			@Override
+			public void valueChanged(final String newValue, final String oldValue) {
+				if ("b".equals(newValue)) throw new IllegalStateException();
+			}
+		}, false);
+		value.addObserver(new IValueObserver<String>() {
+			@Override
+			public void valueChanged(final String newValue, final String oldValue) {
+				events.add(oldValue + "->" + newValue);
+			}
+		}, false);
+		try {
+			value.set("b");
+		} catch (IllegalStateException expected) {
+		}
+		value.set("c");
+		value.set("d");
+		assertThat(events).isEqualTo(asList("a->b", "b->c", "c->d"));
+	}
+
+	/**
+	 * Many threads set distinct values at once: every set has to be notified exactly once, one notification
+	 * at a time, each with the value of the notification before as old value and in the order of each thread.
+	 */
+	@Test
+	public void test_concurrentSetsAreNotifiedInOrder() throws Exception {
+		final IObservableValue<Integer> value = observe().concurrentValue(Integer.valueOf(-1));
+		final List<Integer> newValues = new ArrayList<Integer>();
+		final List<Integer> oldValues = new ArrayList<Integer>();
+		final AtomicInteger concurrentCalls = new AtomicInteger();
+		final AtomicInteger overlaps = new AtomicInteger();
+		value.addObserver(new IValueObserver<Integer>() {
+			@Override
+			public void valueChanged(final Integer newValue, final Integer oldValue) {
+				if (concurrentCalls.incrementAndGet() != 1) overlaps.incrementAndGet();
+				newValues.add(newValue);
+				oldValues.add(oldValue);
+				concurrentCalls.decrementAndGet();
+			}
+		}, false);
+
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicInteger failedSets = new AtomicInteger();
+		final List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < THREADS; t++) {
+			final int thread = t;
+			threads.add(new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int i = 0; i < SETS_PER_THREAD; i++) {
+						if (!value.set(Integer.valueOf(thread * SETS_PER_THREAD + i))) failedSets.incrementAndGet();
+					}
+				}
+			});
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertThat(overlaps.get()).isEqualTo(0);
+		assertThat(failedSets.get()).isEqualTo(0);
+		assertThat(newValues.size()).isEqualTo(THREADS * SETS_PER_THREAD);
+		assertThat(oldValues.get(0).intValue()).isEqualTo(-1);
+		final int[] lastOfThread = new int[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			lastOfThread[t] = -1;
+		}
+		for (int i = 0; i < newValues.size(); i++) {
+			if (i > 0) assertThat(oldValues.get(i)).isEqualTo(newValues.get(i - 1));
+			final int newValue = newValues.get(i).intValue();
+			final int thread = newValue / SETS_PER_THREAD;
+			assertThat(newValue % SETS_PER_THREAD).isEqualTo(lastOfThread[thread] + 1);
+			lastOfThread[thread] = newValue % SETS_PER_THREAD;
+		}
+		assertThat(value.get()).isEqualTo(newValues.get(newValues.size() - 1));
+	}
+
+	/**
+	 * An observer added while another thread delivers changes gets the current value first, then every later
+	 * change with the value before as old value, never overlapping with another notification.
+	 */
+	@Test
+	public void test_initialNotificationIsPartOfTheDelivery() throws Exception {
+		final IObservableValue<Integer> value = observe().concurrentValue(Integer.valueOf(0));
+		final AtomicInteger concurrentCalls = new AtomicInteger();
+		final AtomicInteger overlaps = new AtomicInteger();
+		final List<Integer> newValues = new ArrayList<Integer>();
+		final List<Integer> oldValues = new ArrayList<Integer>();
+		value.addObserver(new IValueObserver<Integer>() {
+			@Override
+			public void valueChanged(final Integer newValue, final Integer oldValue) {
+				if (concurrentCalls.incrementAndGet() != 1) overlaps.incrementAndGet();
+				Thread.yield();
+				concurrentCalls.decrementAndGet();
+			}
+		}, false);
+		final Thread writer = new Thread() {
+			@Override
+			public void run() {
+				for (int i = 1; i <= SETS_PER_THREAD; i++) {
+					value.set(Integer.valueOf(i));
+				}
+			}
+		};
+		writer.start();
+		while (value.get().intValue() == 0) {
+			Thread.yield();
+		}
+		value.addObserver(new IValueObserver<Integer>() {
+			@Override
+			public void valueChanged(final Integer newValue, final Integer oldValue) {
+				if (concurrentCalls.incrementAndGet() != 1) overlaps.incrementAndGet();
+				newValues.add(newValue);
+				oldValues.add(oldValue);
+				concurrentCalls.decrementAndGet();
+			}
+		}, true);
+		writer.join();
+
+		assertThat(overlaps.get()).isEqualTo(0);
+		assertThat((Object) oldValues.get(0)).isNull();
+		for (int i = 1; i < newValues.size(); i++) {
+			assertThat(oldValues.get(i)).isEqualTo(newValues.get(i - 1));
+		}
+		assertThat(newValues.get(newValues.size() - 1).intValue()).isEqualTo(SETS_PER_THREAD);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,290 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import static de.fips.util.tinybinding.Bindings.bind;
+import static de.fips.util.tinybinding.Observables.observe;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import de.fips.util.tinybinding.IBindingContext;
+import de.fips.util.tinybinding.IConverter;
+import de.fips.util.tinybinding.IIntValueObserver;
+import de.fips.util.tinybinding.IObservableBoolean;
+import de.fips.util.tinybinding.IObservableDouble;
+import de.fips.util.tinybinding.IObservableInt;
+import de.fips.util.tinybinding.IObservableLong;
+import de.fips.util.tinybinding.IObservableValue;
+import de.fips.util.tinybinding.IValueObserver;
+
+/**
+ * Tests {@link BindingContext} with plain model values, no GUI needed.
+ */
+@RunWith(JUnit4.class)
+public class ModelBindingContextTest {
+	private IBindingContext context;
+
+	@Before
+	public void setUp() throws Exception {
+		context = new BindingContext();
+	}
+
+	@Test
+	public void test_bind_replacesExistingBinding() {
+		final IObservableValue<String> source = observe().value("first");
+		final IObservableValue<String> target = observe().nil();
+		bind(source).to(target).in(context);
+		bind(source).to(target).updateTarget().in(context);
+		target.set("second");
+		assertThat(source.get()).isEqualTo("first");
+		source.set("third");
+		assertThat(target.get()).isEqualTo("third");
+	}
+
+	@Test
+	public void test_unbindAllFrom() {
+		final IObservableValue<String> source = observe().value("first");
+		final IObservableValue<String> otherSource = observe().value("first");
+		final IObservableValue<String> target = observe().nil();
+		final IObservableValue<String> otherTarget = observe().nil();
+		bind(source).to(target).in(context);
+		bind(source).to(otherTarget).in(context);
+		bind(otherSource).to(target).in(context);
+		context.unbindAllFrom(source);
+		source.set("second");
+		assertThat(target.get()).isEqualTo("first");
+		assertThat(otherTarget.get()).isEqualTo("first");
+		otherSource.set("third");
+		assertThat(target.get()).isEqualTo("third");
+		assertThat(source.get()).isEqualTo("second");
+	}
+
+	@Test
+	public void test_unbindAllTo() {
+		final IObservableValue<String> source = observe().value("first");
+		final IObservableValue<String> otherSource = observe().value("first");
+		final IObservableValue<String> target = observe().nil();
+		bind(source).to(target).in(context);
+		bind(otherSource).to(target).in(context);
+		context.unbindAllTo(target);
+		source.set("second");
+		otherSource.set("third");
+		assertThat(target.get()).isEqualTo("first");
+		context.unbindAllTo(target);
+	}
+
+	@Test
+	public void test_unbindAll() {
+		final IObservableValue<String> source = observe().value("first");
+		final IObservableValue<String> target = observe().nil();
+		bind(source).to(target).in(context);
+		context.unbind(source, target);
+		bind(source).to(target).in(context);
+		context.unbindAll();
+		source.set("second");
+		assertThat(target.get()).isEqualTo("first");
+	}
+
+	@Test
+	public void test_bind_coalesce() {
+		final Queue<Runnable> tasks = new LinkedList<Runnable>();
+		final Executor executor = new Executor() {
+			@Override
+			public void execute(final Runnable task) {
+				tasks.add(task);
+			}
+		};
+		final IObservableValue<String> source = observe().value("first");
+		final IObservableValue<String> target = observe().nil();
+		bind(source).to(target).updateTarget().coalesce(executor).in(context);
+		source.set("second");
+		source.set("third");
+		assertThat(target.get()).isNull();
+		assertThat(tasks.size()).isEqualTo(1);
+		tasks.remove().run();
+		assertThat(target.get()).isEqualTo("third");
+		source.set("fourth");
+		context.unbind(source, target);
+		tasks.remove().run();
+		assertThat(target.get()).isEqualTo("third");
+	}
+
+	@Test
+	public void test_bind_asyncDropsStaleResults() {
+		final Queue<Runnable> tasks = new LinkedList<Runnable>();
+		final Executor executor = new Executor() {
+			@Override
+			public void execute(final Runnable task) {
+				tasks.add(task);
+			}
+		};
+		final Queue<Runnable> applies = new LinkedList<Runnable>();
+		final Executor applyExecutor = new Executor() {
+			@Override
+			public void execute(final Runnable task) {
+				applies.add(task);
+			}
+		};
+		final IObservableValue<String> source = observe().value("first");
+		final IObservableValue<String> target = observe().nil();
+		final List<String> targetValues = new ArrayList<String>();
+		target.addObserver(new IValueObserver<String>() {
+			@Override
+			public void valueChanged(final String value, final String oldValue) {
+				targetValues.add(value);
+			}
+		}, false);
+		bind(source).to(target).updateTarget().async(executor, applyExecutor).convert(new IConverter<String, String>() {
+			@Override
+			public String convert(final String value) {
+				if ("second".equals(value)) source.set("third");
+				return value;
+			}
+		}).in(context);
+		tasks.remove().run();
+		assertThat(target.get()).isNull();
+		applies.remove().run();
+		assertThat(target.get()).isEqualTo("first");
+		source.set("second");
+		tasks.remove().run();
+		assertThat(applies).isEmpty();
+		tasks.remove().run();
+		assertThat(tasks).isEmpty();
+		source.set("fourth");
+		applies.remove().run();
+		assertThat(target.get()).isEqualTo("first");
+		tasks.remove().run();
+		applies.remove().run();
+		assertThat(target.get()).isEqualTo("fourth");
+		assertThat(targetValues).isEqualTo(asList("first", "fourth"));
+	}
+
+	@Test
+	public void test_bind_asyncSetsTargetOnApplyExecutor() throws Exception {
+		final Executor executor = new Executor() {
+			@Override
+			public void execute(final Runnable task) {
+				task.run();
+			}
+		};
+		final ExecutorService applyExecutor = Executors.newSingleThreadExecutor();
+		final Thread applyThread = applyExecutor.submit(new Callable<Thread>() {
+			@Override
+			public Thread call() {
+				return Thread.currentThread();
+			}
+		}).get();
+		final IObservableValue<String> source = observe().value("first");
+		final IObservableValue<String> target = observe().nil();
+		final List<Thread> targetThreads = new CopyOnWriteArrayList<Thread>();
+		target.addObserver(new IValueObserver<String>() {
+			@Override
+			public void valueChanged(final String value, final String oldValue) {
+				targetThreads.add(Thread.currentThread());
+			}
+		}, false);
+		bind(source).to(target).updateTarget().async(executor, applyExecutor).in(context);
+		source.set("second");
+		applyExecutor.shutdown();
+		assertThat(applyExecutor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(target.get()).isEqualTo("second");
+		assertThat(new HashSet<Thread>(targetThreads)).isEqualTo(singleton(applyThread));
+	}
+
+	@Test
+	public void test_bind_primitiveValues() {
+		final IObservableInt source = observe().intValue(1);
+		final IObservableInt target = observe().intValue(0);
+		final List<Integer> targetValues = new ArrayList<Integer>();
+		target.addIntObserver(new IIntValueObserver() {
+			@Override
+			public void valueChanged(final int value, final int oldValue) {
+				targetValues.add(Integer.valueOf(value));
+			}
+		});
+		bind(source).to(target).in(context);
+		assertThat(target.getInt()).isEqualTo(1);
+		source.setInt(2);
+		assertThat(target.getInt()).isEqualTo(2);
+		target.setInt(3);
+		assertThat(source.getInt()).isEqualTo(3);
+		assertThat(targetValues).isEqualTo(asList(1, 2, 3));
+		context.unbind(source, target);
+		source.setInt(4);
+		assertThat(target.getInt()).isEqualTo(3);
+	}
+
+	@Test
+	public void test_bind_primitiveValuesOfEveryKind() {
+		final IObservableLong longSource = observe().longValue(1L);
+		final IObservableLong longTarget = observe().longValue(0L);
+		final IObservableDouble doubleSource = observe().doubleValue(1.5);
+		final IObservableDouble doubleTarget = observe().doubleValue(0.0);
+		final IObservableBoolean booleanSource = observe().booleanValue(true);
+		final IObservableBoolean booleanTarget = observe().booleanValue(false);
+		bind(longSource).to(longTarget).in(context);
+		bind(doubleSource).to(doubleTarget).updateTarget().in(context);
+		bind(booleanSource).to(booleanTarget).in(context);
+		assertThat(longTarget.getLong()).isEqualTo(1L);
+		assertThat(doubleTarget.getDouble()).isEqualTo(1.5);
+		assertThat(booleanTarget.getBoolean()).isTrue();
+		longTarget.setLong(2L);
+		doubleTarget.setDouble(2.5);
+		booleanTarget.setBoolean(false);
+		assertThat(longSource.getLong()).isEqualTo(2L);
+		assertThat(doubleSource.getDouble()).isEqualTo(1.5);
+		assertThat(booleanSource.getBoolean()).isFalse();
+	}
+
+	@Test
+	public void test_bind_primitiveValuesWithConverter() {
+		final IObservableInt source = observe().intValue(1);
+		final IObservableInt target = observe().intValue(0);
+		bind(source).to(target).updateTarget().convert(new IConverter<Integer, Integer>() {
+			@Override
+			public Integer convert(final Integer value) {
+				return Integer.valueOf(value.intValue() * 10);
+			}
+		}).in(context);
+		assertThat(target.getInt()).isEqualTo(10);
+		source.setInt(2);
+		assertThat(target.getInt()).isEqualTo(20);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,209 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import static de.fips.util.tinybinding.Observables.observe;
+import static java.util.Arrays.asList;
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import de.fips.util.tinybinding.IConverter;
+import de.fips.util.tinybinding.IListObserver;
+import de.fips.util.tinybinding.IObservableList;
+import de.fips.util.tinybinding.junit.RecordingListObserver;
+
+/**
+ * Tests {@link ObservableList}.
+ */
+@RunWith(JUnit4.class)
+public class ObservableListTest {
+	private IObservableList<String> list;
+	private RecordingListObserver<String> observer;
+
+	@Before
+	public void setUp() {
+		list = observe().list(new ArrayList<String>(asList("a", "b", "c", "d", "e")));
+		observer = new RecordingListObserver<String>();
+		list.addObserver(observer);
+	}
+
+	@Test
+	public void test_setAllReplacesOnlyChangedRanges() {
+		list.setAll(asList("a", "x", "c", "d", "e", "f"));
+		assertThat(list).isEqualTo(asList("a", "x", "c", "d", "e", "f"));
+		assertThat(observer.getEvents()).isEqualTo(asList("added 5 1", "removed 1 [b]", "added 1 1"));
+	}
+
+	@Test
+	public void test_setAllWithSameContentFiresNothing() {
+		list.setAll(asList("a", "b", "c", "d", "e"));
+		assertThat(observer.getEvents()).isEmpty();
+	}
+
+	@Test
+	public void test_setAllOnLargeListFiresFewEvents() {
+		final List<String> rows = new ArrayList<String>();
+		for (int i = 0; i < 10000; i++) {
+			rows.add("row " + i);
+		}
+		list.setAll(rows);
+		observer.getEvents().clear();
+		final List<String> newRows = new ArrayList<String>(rows);
+		newRows.remove(100);
+		newRows.set(5000, "changed");
+		newRows.add(7000, "inserted");
+		list.setAll(newRows);
+		assertThat(list).isEqualTo(newRows);
+		assertThat(observer.getEvents()).isEqualTo(asList("added 7001 1", "removed 5001 [row 5001]", "added 5001 1", "removed 100 [row 100]"));
+	}
+
+	@Test
+	public void test_removeRangeFiresOneEvent() {
+		list.removeRange(1, 4);
+		assertThat(list).isEqualTo(asList("a", "e"));
+		assertThat(observer.getEvents()).isEqualTo(asList("removed 1 [b, c, d]"));
+	}
+
+	@Test
+	public void test_subListClearFiresOneEvent() {
+		list.subList(0, 2).clear();
+		assertThat(list).isEqualTo(asList("c", "d", "e"));
+		assertThat(observer.getEvents()).isEqualTo(asList("removed 0 [a, b]"));
+	}
+
+	@Test
+	public void test_convertAllFiresOneEventPerChangedRun() {
+		list.convertAll(new IConverter<String, String>() {
+			@Override
+			public String convert(final String element) {
+				return "b".equals(element) || "c".equals(element) || "e".equals(element) ? element.toUpperCase() : element;
+			}
+		});
+		assertThat(list).isEqualTo(asList("a", "B", "C", "d", "E"));
+		assertThat(observer.getEvents()).isEqualTo(asList("removed 1 [b, c]", "added 1 2", "replaced 4 e"));
+	}
+
+	@Test
+	public void test_sortFiresOneEventForMovedRange() {
+		list.set(1, "d");
+		list.set(3, "b");
+		observer.getEvents().clear();
+		list.sort(null);
+		assertThat(list).isEqualTo(asList("a", "b", "c", "d", "e"));
+		assertThat(observer.getEvents()).isEqualTo(asList("removed 1 [d, c, b]", "added 1 3"));
+	}
+
+	@Test
+	public void test_sortWithComparator() {
+		list.sort(Collections.reverseOrder());
+		assertThat(list).isEqualTo(asList("e", "d", "c", "b", "a"));
+	}
+
+	@Test
+	public void test_addAllReturnsWhetherListChanged() {
+		assertThat(list.addAll(asList("f", "g"))).isTrue();
+		assertThat(list.addAll(Collections.<String>emptyList())).isFalse();
+		assertThat(observer.getEvents()).isEqualTo(asList("added 5 2"));
+	}
+
+	@Test
+	public void test_removeAllFiresOneEventPerRun() {
+		assertThat(list.removeAll(asList("b", "c", "e"))).isTrue();
+		assertThat(list).isEqualTo(asList("a", "d"));
+		assertThat(observer.getEvents()).isEqualTo(asList("removed 4 [e]", "removed 1 [b, c]"));
+	}
+
+	@Test
+	public void test_retainAllFiresOneEventPerRun() {
+		assertThat(list.retainAll(asList("a", "d"))).isTrue();
+		assertThat(list).isEqualTo(asList("a", "d"));
+		assertThat(list.retainAll(asList("a", "d"))).isFalse();
+		assertThat(observer.getEvents()).isEqualTo(asList("removed 4 [e]", "removed 1 [b, c]"));
+	}
+
+	@Test
+	public void test_observersMayKeepRemovedElements() {
+		final List<List<String>> removed = new ArrayList<List<String>>();
+		list.addObserver(new IListObserver<String>() {
+			@Override
+			public void valuesAdded(final IObservableList<String> list, final int index, final int length) {
+			}
+
+			@Override
+			public void valuesRemoved(final IObservableList<String> list, final int index, final List<String> oldElements) {
+				removed.add(oldElements);
+			}
+
+			@Override
+			public void valueReplaced(final IObservableList<String> list, final int index, final String oldElement) {
+			}
+		});
+		list.removeRange(1, 3);
+		list.clear();
+		assertThat(removed).isEqualTo(asList(asList("b", "c"), asList("a", "d", "e")));
+		try {
+			removed.get(0).clear();
+			fail("removed elements must be unmodifiable");
+		} catch (UnsupportedOperationException expected) {
+		}
+	}
+
+	@Test
+	public void test_clearWithoutObserversSkipsCopy() {
+		list.removeObserver(observer);
+		list.clear();
+		assertThat(list).isEmpty();
+		assertThat(observer.getEvents()).isEmpty();
+	}
+
+	@Test
+	public void test_observerChangingListDuringRemovalGetsIntactElements() {
+		list.addObserver(new IListObserver<String>() {
+			@Override
+			public void valuesAdded(final IObservableList<String> list, final int index, final int length) {
+			}
+
+			@Override
+			public void valuesRemoved(final IObservableList<String> list, final int index, final List<String> oldElements) {
+				if (index == 3) {
+					list.removeRange(0, 1);
+					assertThat(oldElements).isEqualTo(asList("d", "e"));
+				}
+			}
+
+			@Override
+			public void valueReplaced(final IObservableList<String> list, final int index, final String oldElement) {
+			}
+		});
+		list.removeRange(3, 5);
+		assertThat(list).isEqualTo(asList("b", "c"));
+	}
+}
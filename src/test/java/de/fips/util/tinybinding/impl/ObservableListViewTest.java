@@ -0,0 +1,256 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import static de.fips.util.tinybinding.Observables.observe;
+import static java.util.Arrays.asList;
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import de.fips.util.tinybinding.IConverter;
+import de.fips.util.tinybinding.IListObserver;
+import de.fips.util.tinybinding.IObservableList;
+import de.fips.util.tinybinding.IObservableListView;
+import de.fips.util.tinybinding.junit.ExpectedException;
+import de.fips.util.tinybinding.junit.RecordingListObserver;
+
+/**
+ * Tests {@link FilteredObservableList}, {@link SortedObservableList} and {@link MappedObservableList}.
+ */
+@RunWith(JUnit4.class)
+public class ObservableListViewTest {
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private static final IConverter<Integer, Boolean> EVEN = new IConverter<Integer, Boolean>() {
+		@Override
+		public Boolean convert(final Integer value) {
+			return Boolean.valueOf(value.intValue() % 2 == 0);
+		}
+	};
+
+	private static final IConverter<Integer, String> TO_STRING = new IConverter<Integer, String>() {
+		@Override
+		public String convert(final Integer value) {
+			return "#" + value;
+		}
+	};
+
+	private static final Comparator<Integer> NATURAL = new Comparator<Integer>() {
+		@Override
+		public int compare(final Integer a, final Integer b) {
+			return a.compareTo(b);
+		}
+	};
+
+	private IObservableList<Integer> source;
+
+	@Before
+	public void setUp() {
+		source = observe().list(new ArrayList<Integer>(asList(5, 2, 8, 1, 4)));
+	}
+
+	@Test
+	public void test_filtered() {
+		final IObservableList<Integer> view = observe().filtered(source, EVEN);
+		final RecordingListObserver<Integer> observer = new RecordingListObserver<Integer>();
+		view.addObserver(observer);
+		assertThat(view).isEqualTo(asList(2, 8, 4));
+
+		source.add(3);
+		source.add(0, 6);
+		source.set(1, 10);
+		source.set(3, 7);
+		source.remove(2);
+		assertThat(view).isEqualTo(asList(6, 10, 4));
+		assertThat(observer.getEvents()).isEqualTo(asList("added 0 1", "added 1 1", "removed 3 [8]", "removed 2 [2]"));
+	}
+
+	@Test
+	public void test_sortedRepositionsOnlyReplacedElement() {
+		final IObservableList<Integer> view = observe().sorted(source, NATURAL);
+		final RecordingListObserver<Integer> observer = new RecordingListObserver<Integer>();
+		view.addObserver(observer);
+		assertThat(view).isEqualTo(asList(1, 2, 4, 5, 8));
+
+		source.set(0, 6);
+		source.set(1, 9);
+		assertThat(view).isEqualTo(asList(1, 4, 6, 8, 9));
+		assertThat(observer.getEvents()).isEqualTo(asList("replaced 3 5", "removed 1 [2]", "added 4 1"));
+	}
+
+	@Test
+	public void test_sortedKeepsSourceOrderOfEqualElements() {
+		final List<String> rows = asList("b1", "a1", "b2", "a2");
+		final IObservableList<String> list = observe().list(new ArrayList<String>(rows));
+		final IObservableList<String> view = observe().sorted(list, new Comparator<String>() {
+			@Override
+			public int compare(final String a, final String b) {
+				return a.charAt(0) - b.charAt(0);
+			}
+		});
+		assertThat(view).isEqualTo(asList("a1", "a2", "b1", "b2"));
+
+		list.add(0, "a0");
+		list.remove("b2");
+		assertThat(view).isEqualTo(asList("a0", "a1", "a2", "b1"));
+	}
+
+	@Test
+	public void test_mapped() {
+		final IObservableList<String> view = observe().mapped(source, TO_STRING);
+		final RecordingListObserver<String> observer = new RecordingListObserver<String>();
+		view.addObserver(observer);
+		assertThat(view).isEqualTo(asList("#5", "#2", "#8", "#1", "#4"));
+
+		source.set(1, 3);
+		source.removeRange(2, 4);
+		source.addAll(asList(7, 9));
+		assertThat(view).isEqualTo(asList("#5", "#3", "#4", "#7", "#9"));
+		assertThat(observer.getEvents()).isEqualTo(asList("replaced 1 #2", "removed 2 [#8, #1]", "added 3 2"));
+	}
+
+	@Test
+	public void test_viewsWithEqualContentFollowTheSameSource() {
+		final IObservableList<Integer> list = observe().list(new ArrayList<Integer>());
+		final IObservableList<Integer> filtered = observe().filtered(list, EVEN);
+		final IObservableList<Integer> sorted = observe().sorted(list, Collections.reverseOrder(NATURAL));
+		final IObservableList<String> mapped = observe().mapped(list, TO_STRING);
+		assertThat(filtered).isEqualTo(sorted);
+
+		list.add(1);
+		list.add(2);
+		assertThat(filtered).isEqualTo(asList(2));
+		assertThat(sorted).isEqualTo(asList(2, 1));
+		assertThat(mapped).isEqualTo(asList("#1", "#2"));
+	}
+
+	@Test
+	public void test_disposedViewStopsFollowingTheSource() {
+		final IObservableListView<Integer> disposed = observe().filtered(source, EVEN);
+		final IObservableListView<Integer> view = observe().filtered(source, EVEN);
+		final RecordingListObserver<Integer> observer = new RecordingListObserver<Integer>();
+		disposed.addObserver(observer);
+		disposed.dispose();
+
+		source.add(6);
+		source.remove(Integer.valueOf(2));
+		assertThat(disposed).isEqualTo(asList(2, 8, 4));
+		assertThat(observer.getEvents()).isEmpty();
+		assertThat(view).isEqualTo(asList(8, 4, 6));
+	}
+
+	@Test
+	public void test_viewsAreReadOnly() {
+		final IObservableList<Integer> view = observe().filtered(source, EVEN);
+		thrown.expect(UnsupportedOperationException.class);
+		view.add(2);
+	}
+
+	@Test
+	public void test_viewsFollowRandomChanges() {
+		final IObservableList<Integer> filtered = observe().filtered(source, EVEN);
+		final IObservableList<Integer> sorted = observe().sorted(source, NATURAL);
+		final IObservableList<String> mapped = observe().mapped(source, TO_STRING);
+		final List<Integer> filteredMirror = mirror(filtered);
+		final List<Integer> sortedMirror = mirror(sorted);
+		final List<String> mappedMirror = mirror(mapped);
+		final Random random = new Random(42);
+		for (int step = 0; step < 2000; step++) {
+			final int size = source.size();
+			switch (random.nextInt(6)) {
+			case 0:
+				source.add(random.nextInt(size + 1), random.nextInt(50));
+				break;
+			case 1:
+				if (size > 0) source.remove(random.nextInt(size));
+				break;
+			case 2:
+				if (size > 0) source.set(random.nextInt(size), random.nextInt(50));
+				break;
+			case 3:
+				source.addAll(random.nextInt(size + 1), asList(random.nextInt(50), random.nextInt(50), random.nextInt(50)));
+				break;
+			case 4:
+				if (size > 1) {
+					final int from = random.nextInt(size);
+					source.removeRange(from, Math.min(size, from + 1 + random.nextInt(4)));
+				}
+				break;
+			default:
+				final List<Integer> contents = new ArrayList<Integer>(source);
+				Collections.shuffle(contents.subList(0, size / 2), random);
+				source.setAll(contents);
+			}
+
+			final List<Integer> expectedFiltered = new ArrayList<Integer>();
+			final List<String> expectedMapped = new ArrayList<String>();
+			for (Integer value : source) {
+				if (EVEN.convert(value).booleanValue()) expectedFiltered.add(value);
+				expectedMapped.add(TO_STRING.convert(value));
+			}
+			final List<Integer> expectedSorted = new ArrayList<Integer>(source);
+			Collections.sort(expectedSorted);
+			assertThat(filtered).isEqualTo(expectedFiltered);
+			assertThat(sorted).isEqualTo(expectedSorted);
+			assertThat(mapped).isEqualTo(expectedMapped);
+			assertThat(filteredMirror).isEqualTo(expectedFiltered);
+			assertThat(sortedMirror).isEqualTo(expectedSorted);
+			assertThat(mappedMirror).isEqualTo(expectedMapped);
+		}
+	}
+
+	/**
+	 * Replays the events of {@code list} on a copy, to make sure the events alone describe every change.
+	 */
+	private static <E> List<E> mirror(final IObservableList<E> list) {
+		final List<E> mirror = new ArrayList<E>(list);
+		list.addObserver(new IListObserver<E>() {
+			@Override
+			public void valuesAdded(final IObservableList<E> list, final int index, final int length) {
+				mirror.addAll(index, list.subList(index, index + length));
+			}
+
+			@Override
+			public void valuesRemoved(final IObservableList<E> list, final int index, final List<E> oldElements) {
+				mirror.subList(index, index + oldElements.size()).clear();
+			}
+
+			@Override
+			public void valueReplaced(final IObservableList<E> list, final int index, final E oldElement) {
+				mirror.set(index, list.get(index));
+			}
+		});
+		return mirror;
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import static de.fips.util.tinybinding.Observables.batch;
+import static de.fips.util.tinybinding.Observables.observe;
+import static de.fips.util.tinybinding.util.Cast.uncheckedCast;
+import static java.util.Arrays.asList;
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import de.fips.util.tinybinding.IBooleanValueObserver;
+import de.fips.util.tinybinding.IDoubleValueObserver;
+import de.fips.util.tinybinding.IIntValueObserver;
+import de.fips.util.tinybinding.IObservableBoolean;
+import de.fips.util.tinybinding.IObservableDouble;
+import de.fips.util.tinybinding.IObservableInt;
+import de.fips.util.tinybinding.IValueObserver;
+
+/**
+ * Tests {@link ObservableInt}, {@link ObservableLong}, {@link ObservableDouble} and {@link ObservableBoolean}.
+ */
+@RunWith(JUnit4.class)
+public class ObservablePrimitiveTest {
+
+	@Test
+	public void test_intValue() {
+		final IObservableInt value = observe().intValue(1);
+		final IIntValueObserver observer = mock(IIntValueObserver.class);
+		final IValueObserver<Integer> boxedObserver = uncheckedCast(mock(IValueObserver.class));
+		value.addIntObserver(observer);
+		value.addObserver(boxedObserver, false);
+		assertThat(value.setInt(1)).isFalse();
+		assertThat(value.setInt(2)).isTrue();
+		assertThat(value.set(Integer.valueOf(3))).isTrue();
+		assertThat(value.getInt()).isEqualTo(3);
+		assertThat(value.get()).isEqualTo(Integer.valueOf(3));
+		verify(observer).valueChanged(2, 1);
+		verify(observer).valueChanged(3, 2);
+		verify(boxedObserver).valueChanged(Integer.valueOf(2), Integer.valueOf(1));
+		verify(boxedObserver).valueChanged(Integer.valueOf(3), Integer.valueOf(2));
+		verifyNoMoreInteractions(observer, boxedObserver);
+	}
+
+	@Test
+	public void test_doubleValueComparesLikeDoubleEquals() {
+		final IObservableDouble value = observe().doubleValue(Double.NaN);
+		final IDoubleValueObserver observer = mock(IDoubleValueObserver.class);
+		value.addDoubleObserver(observer);
+		assertThat(value.setDouble(Double.NaN)).isFalse();
+		assertThat(value.setDouble(0.0)).isTrue();
+		assertThat(value.setDouble(-0.0)).isTrue();
+		verify(observer).valueChanged(0.0, Double.NaN);
+		verify(observer).valueChanged(-0.0, 0.0);
+	}
+
+	@Test
+	public void test_removedObserverIsNotNotified() {
+		final IObservableBoolean value = observe().booleanValue(false);
+		final IBooleanValueObserver observer = mock(IBooleanValueObserver.class);
+		value.addBooleanObserver(observer);
+		value.removeBooleanObserver(observer);
+		value.setBoolean(true);
+		verifyZeroInteractions(observer);
+	}
+
+	@Test
+	public void test_batchNotifiesOnce() {
+		final IObservableInt value = observe().intValue(1);
+		final List<String> events = new ArrayList<String>();
+		value.addIntObserver(new IIntValueObserver() {
+			@Override
+			public void valueChanged(final int newValue, final int oldValue) {
+				events.add(oldValue + "->" + newValue);
+			}
+		});
+		batch(new Runnable() {
+			@Override
+			public void run() {
+				value.setInt(2);
+				value.setInt(3);
+			}
+		});
+		assertThat(events).isEqualTo(asList("1->3"));
+		assertThat(value.getInt()).isEqualTo(3);
+	}
+}
@@ -24,14 +24,25 @@ package de.fips.util.tinybinding.impl;
 import static de.fips.util.tinybinding.Observables.observe;
 import static de.fips.util.tinybinding.util.Cast.uncheckedCast;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
 import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -41,8 +52,12 @@ import de.fips.util.tinybinding.IListObserver;
 import de.fips.util.tinybinding.IMapObserver;
 import de.fips.util.tinybinding.IObservableList;
 import de.fips.util.tinybinding.IObservableMap;
+import de.fips.util.tinybinding.IObservableSet;
 import de.fips.util.tinybinding.IObservableValue;
+import de.fips.util.tinybinding.ISetObserver;
 import de.fips.util.tinybinding.IValueObserver;
+import de.fips.util.tinybinding.MapObserverAdapter;
+import de.fips.util.tinybinding.junit.RecordingListObserver;
 
 /**
  * Tests {@link Observable}.
@@ -70,7 +85,80 @@ public class ObservableTest {
 		verify(observer, times(1)).valueRemoved(eq(map), eq("key"), eq("new value"));
 		map.clear();
 		assertThat(map).isEmpty();
-		verify(observer, times(1)).valueRemoved(eq(map), eq("another key"), eq("another value"));
+		verify(observer, times(1)).entriesRemoved(eq(map), eq(singletonMap("another key", "another value")));
+	}
+
+	@Test
+	public void test_observeMapBulkChanges() throws Exception {
+		IObservableMap<String, String> map = observe().map(new HashMap<String, String>());
+		map.put("key", "value");
+		IMapObserver<String, String> observer = uncheckedCast(mock(IMapObserver.class));
+		map.addObserver(observer);
+		Map<String, String> entries = new LinkedHashMap<String, String>();
+		entries.put("key", "new value");
+		entries.put("another key", "another value");
+		map.putAll(entries);
+		verify(observer, times(1)).entriesAdded(eq(map), eq(singleton("another key")));
+		verify(observer, times(1)).entriesChanged(eq(map), eq(singletonMap("key", "value")));
+		map.clear();
+		verify(observer, times(1)).entriesRemoved(eq(map), eq(entries));
+		verifyNoMoreInteractions(observer);
+	}
+
+	@Test
+	public void test_observeKeyOnlyNotifiesObserversOfThatKey() throws Exception {
+		IObservableMap<String, String> map = observe().map(new HashMap<String, String>());
+		map.put("key", "value");
+		IObservableValue<String> value = map.observeKey("key");
+		IValueObserver<String> observer = uncheckedCast(mock(IValueObserver.class));
+		value.addObserver(observer, false);
+		map.put("another key", "another value");
+		map.put("key", "value");
+		map.put("key", "new value");
+		map.putAll(singletonMap("key", "newer value"));
+		map.remove("another key");
+		map.clear();
+		verify(observer, times(1)).valueChanged("new value", "value");
+		verify(observer, times(1)).valueChanged("newer value", "new value");
+		verify(observer, times(1)).valueChanged(null, "newer value");
+		verifyNoMoreInteractions(observer);
+		assertThat(value.set("value")).isTrue();
+		assertThat(map.get("key")).isEqualTo("value");
+		assertThat(value).isEqualTo(map.observeKey("key"));
+		assertThat(value.set(null)).isTrue();
+		assertThat(map.containsKey("key")).isFalse();
+		verify(observer, times(1)).valueChanged(null, "value");
+		value.set("value");
+		map.observeKey("key").removeObserver(observer);
+		map.put("key", "new value");
+		verify(observer, times(2)).valueChanged("value", null);
+		verifyNoMoreInteractions(observer);
+	}
+
+	@Test
+	public void test_mapObserverAdapterSplitsBulkChanges() throws Exception {
+		IObservableMap<String, String> map = observe().map(new HashMap<String, String>());
+		final List<String> events = new ArrayList<String>();
+		map.addObserver(new MapObserverAdapter<String, String>() {
+			@Override
+			public void valueAdded(final IObservableMap<String, String> map, final String key) {
+				events.add("added " + key);
+			}
+
+			@Override
+			public void valueChanged(final IObservableMap<String, String> map, final String key, final String lastValue) {
+				events.add("changed " + key + " " + lastValue);
+			}
+
+			@Override
+			public void valueRemoved(final IObservableMap<String, String> map, final String key, final String value) {
+				events.add("removed " + key + " " + value);
+			}
+		});
+		map.putAll(singletonMap("key", "value"));
+		map.putAll(singletonMap("key", "new value"));
+		map.clear();
+		assertThat(events).isEqualTo(asList("added key", "changed key value", "removed key new value"));
 	}
 
 	@Test
@@ -91,9 +179,81 @@ public class ObservableTest {
 		list.set(0, "yet another element");
 		assertThat(list).containsOnly("yet another element", "another element");
 		verify(observer, times(1)).valueReplaced(eq(list), eq(0), eq("element"));
+		final RecordingListObserver<String> recorder = new RecordingListObserver<String>();
+		list.addObserver(recorder);
 		list.clear();
 		assertThat(list).isEmpty();
-		verify(observer, times(1)).valuesRemoved(eq(list), eq(0), eq(asList("yet another element", "another element")));
+		verify(observer, times(1)).valuesRemoved(eq(list), eq(0), any(List.class));
+		assertThat(recorder.getEvents()).isEqualTo(asList("removed 0 [yet another element, another element]"));
+	}
+
+	@Test
+	public void test_observeSet() throws Exception {
+		IObservableSet<String> set = observe().set(new HashSet<String>());
+		ISetObserver<String> observer = uncheckedCast(mock(ISetObserver.class));
+		set.addObserver(observer);
+		assertThat(set.add("element")).isTrue();
+		assertThat(set.add("element")).isFalse();
+		assertThat(set.contains("element")).isTrue();
+		verify(observer, times(1)).valuesAdded(eq(set), eq(singleton("element")));
+		assertThat(set.remove("element")).isTrue();
+		assertThat(set.remove("element")).isFalse();
+		assertThat(set).isEmpty();
+		verify(observer, times(1)).valuesRemoved(eq(set), eq(singleton("element")));
+		set.add("another element");
+		set.iterator().next();
+		Iterator<String> iterator = set.iterator();
+		iterator.next();
+		iterator.remove();
+		assertThat(set).isEmpty();
+		verify(observer, times(1)).valuesRemoved(eq(set), eq(singleton("another element")));
+	}
+
+	@Test
+	public void test_observeSetReportsStoredElements() throws Exception {
+		final String stored = new String("a");
+		final IObservableSet<String> set = observe().set(new HashSet<String>(asList(stored, "b")));
+		final IObservableSet<String> sorted = observe().set(new TreeSet<String>(String.CASE_INSENSITIVE_ORDER));
+		sorted.addAll(asList("A", "B"));
+		final List<String> removed = new ArrayList<String>();
+		final ISetObserver<String> observer = new ISetObserver<String>() {
+			@Override
+			public void valuesAdded(final IObservableSet<String> set, final Set<String> elements) {
+			}
+
+			@Override
+			public void valuesRemoved(final IObservableSet<String> set, final Set<String> elements) {
+				removed.addAll(elements);
+			}
+		};
+		set.addObserver(observer);
+		sorted.addObserver(observer);
+		assertThat(set.remove(new String("a"))).isTrue();
+		assertThat(removed.get(0)).isSameAs(stored);
+		assertThat(sorted.remove("a")).isTrue();
+		assertThat(sorted.removeAll(singleton("b"))).isTrue();
+		assertThat(removed).isEqualTo(asList("a", "A", "B"));
+	}
+
+	@Test
+	public void test_observeSetBulkChanges() throws Exception {
+		IObservableSet<String> set = observe().set(new HashSet<String>(asList("a", "b")));
+		ISetObserver<String> observer = uncheckedCast(mock(ISetObserver.class));
+		set.addObserver(observer);
+		assertThat(set.addAll(asList("b", "c", "d"))).isTrue();
+		verify(observer, times(1)).valuesAdded(eq(set), eq(newSet("c", "d")));
+		assertThat(set.removeAll(asList("a", "x"))).isTrue();
+		verify(observer, times(1)).valuesRemoved(eq(set), eq(singleton("a")));
+		assertThat(set.retainAll(asList("b", "c"))).isTrue();
+		verify(observer, times(1)).valuesRemoved(eq(set), eq(singleton("d")));
+		set.clear();
+		verify(observer, times(1)).valuesRemoved(eq(set), eq(newSet("b", "c")));
+		assertThat(set.addAll(asList("a"))).isTrue();
+		assertThat(set.removeAll(asList("x"))).isFalse();
+		set.removeObserver(observer);
+		set.add("b");
+		verify(observer, times(1)).valuesAdded(eq(set), eq(singleton("a")));
+		verifyNoMoreInteractions(observer);
 	}
 
 	@Test
@@ -119,4 +279,8 @@ public class ObservableTest {
 		assertThat(string.get()).isEqualTo("value");
 		verify(observer, times(1)).valueChanged(eq("value"), eq((String) null));
 	}
+
+	private static Set<String> newSet(final String... elements) {
+		return new HashSet<String>(asList(elements));
+	}
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import static java.util.Arrays.asList;
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests {@link ObserverRegistry}.
+ */
+@RunWith(JUnit4.class)
+public class ObserverRegistryTest {
+
+	@Test
+	public void test_addIgnoresDuplicates() {
+		ObserverRegistry<String> registry = new ObserverRegistry<String>();
+		assertThat(registry.add("a")).isTrue();
+		assertThat(registry.add("a")).isFalse();
+		assertThat(observersOf(registry)).isEqualTo(asList("a"));
+	}
+
+	@Test
+	public void test_removeUnknownObserver() {
+		ObserverRegistry<String> registry = new ObserverRegistry<String>();
+		registry.add("a");
+		assertThat(registry.remove("b")).isFalse();
+		assertThat(registry.remove("a")).isTrue();
+		assertThat(registry.isEmpty()).isTrue();
+	}
+
+	@Test
+	public void test_keepsRegistrationOrder() {
+		ObserverRegistry<String> registry = new ObserverRegistry<String>();
+		for (int i = 0; i < 10; i++) {
+			registry.add("o" + i);
+		}
+		for (int i = 0; i < 10; i += 2) {
+			registry.remove("o" + i);
+		}
+		registry.add("o10");
+		assertThat(observersOf(registry)).isEqualTo(asList("o1", "o3", "o5", "o7", "o9", "o10"));
+	}
+
+	@Test
+	public void test_snapshotDoesNotSeeObserversAddedLater() {
+		ObserverRegistry<String> registry = new ObserverRegistry<String>();
+		registry.add("a");
+		ObserverRegistry.Snapshot<String> snapshot = registry.snapshot();
+		registry.add("b");
+		assertThat(snapshot.size()).isEqualTo(1);
+		assertThat(observersOf(registry)).isEqualTo(asList("a", "b"));
+	}
+
+	@Test
+	public void test_snapshotSkipsObserversRemovedLater() {
+		ObserverRegistry<String> registry = new ObserverRegistry<String>();
+		registry.add("a");
+		registry.add("b");
+		registry.add("c");
+		ObserverRegistry.Snapshot<String> snapshot = registry.snapshot();
+		registry.remove("b");
+		assertThat(snapshot.get(1)).isNull();
+		assertThat(observersOf(registry)).isEqualTo(asList("a", "c"));
+	}
+
+	@Test
+	public void test_snapshotSkipsObserversRemovedAfterTheArrayWasReplaced() {
+		ObserverRegistry<String> registry = new ObserverRegistry<String>();
+		for (int i = 0; i < 4; i++) {
+			registry.add("o" + i);
+		}
+		ObserverRegistry.Snapshot<String> snapshot = registry.snapshot();
+		registry.remove("o0");
+		registry.remove("o1");
+		registry.remove("o2");
+		registry.add("o4");
+		registry.remove("o3");
+		assertThat(snapshot.get(3)).isNull();
+		assertThat(observersOf(registry)).isEqualTo(asList("o4"));
+	}
+
+	private static List<String> observersOf(final ObserverRegistry<String> registry) {
+		final List<String> observers = new ArrayList<String>();
+		final ObserverRegistry.Snapshot<String> snapshot = registry.snapshot();
+		for (int i = 0, size = snapshot.size(); i < size; i++) {
+			final String observer = snapshot.get(i);
+			if (observer != null) observers.add(observer);
+		}
+		return observers;
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests {@link SampleScheduler}.
+ */
+@RunWith(JUnit4.class)
+public class SampleSchedulerTest {
+	private ScheduledExecutorService scheduler;
+	private ScheduledFuture<?> future;
+	private Runnable update;
+	private Runnable trigger;
+
+	@Before
+	public void setUp() {
+		scheduler = mock(ScheduledExecutorService.class);
+		future = mock(ScheduledFuture.class);
+		doReturn(future).when(scheduler).scheduleAtFixedRate(any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class));
+		update = mock(Runnable.class);
+		trigger = new SampleScheduler(scheduler, new ThrottleSchedulerTest.DirectExecutor(), 100, TimeUnit.MILLISECONDS).attach(update);
+	}
+
+	@Test
+	public void test_samplesOncePerPeriodAndStopsWhenIdle() {
+		final ArgumentCaptor<Runnable> tick = ArgumentCaptor.forClass(Runnable.class);
+		trigger.run();
+		trigger.run();
+		verify(scheduler, times(1)).scheduleAtFixedRate(tick.capture(), eq(100L), eq(100L), eq(TimeUnit.MILLISECONDS));
+
+		tick.getValue().run();
+		verify(update, times(1)).run();
+
+		tick.getValue().run();
+		verify(update, times(1)).run();
+		verify(future).cancel(false);
+
+		trigger.run();
+		verify(scheduler, times(2)).scheduleAtFixedRate(any(Runnable.class), eq(100L), eq(100L), eq(TimeUnit.MILLISECONDS));
+	}
+}
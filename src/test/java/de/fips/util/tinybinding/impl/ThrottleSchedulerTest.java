@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.impl;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests {@link ThrottleScheduler}.
+ */
+@RunWith(JUnit4.class)
+public class ThrottleSchedulerTest {
+	private ScheduledExecutorService scheduler;
+	private Executor executor;
+	private Runnable update;
+	private Runnable trigger;
+
+	@Before
+	public void setUp() {
+		scheduler = mock(ScheduledExecutorService.class);
+		executor = spy(new DirectExecutor());
+		update = mock(Runnable.class);
+		trigger = new ThrottleScheduler(scheduler, executor, 1, TimeUnit.HOURS).attach(update);
+	}
+
+	@Test
+	public void test_firstTriggerRunsRightAway() {
+		trigger.run();
+		final ArgumentCaptor<Long> delay = ArgumentCaptor.forClass(Long.class);
+		verify(scheduler).schedule(any(Runnable.class), delay.capture(), eq(TimeUnit.NANOSECONDS));
+		assertThat(delay.getValue().longValue()).isEqualTo(0);
+	}
+
+	@Test
+	public void test_triggersWithinIntervalAreFoldedIntoOneUpdate() {
+		final ArgumentCaptor<Runnable> fire = ArgumentCaptor.forClass(Runnable.class);
+		final ArgumentCaptor<Long> delay = ArgumentCaptor.forClass(Long.class);
+		trigger.run();
+		verify(scheduler).schedule(fire.capture(), anyLong(), eq(TimeUnit.NANOSECONDS));
+		fire.getValue().run();
+		verify(update, times(1)).run();
+
+		trigger.run();
+		trigger.run();
+		trigger.run();
+		verify(scheduler, times(2)).schedule(any(Runnable.class), delay.capture(), eq(TimeUnit.NANOSECONDS));
+		assertThat(delay.getValue().longValue()).isGreaterThan(TimeUnit.MINUTES.toNanos(59));
+		verify(update, times(1)).run();
+	}
+
+	@Test
+	public void test_updateRunsOnTheExecutor() {
+		final ArgumentCaptor<Runnable> fire = ArgumentCaptor.forClass(Runnable.class);
+		doNothing().when(executor).execute(any(Runnable.class));
+		trigger.run();
+		verify(scheduler).schedule(fire.capture(), anyLong(), eq(TimeUnit.NANOSECONDS));
+		fire.getValue().run();
+		verify(executor).execute(any(Runnable.class));
+		verifyZeroInteractions(update);
+	}
+
+	static class DirectExecutor implements Executor {
+		@Override
+		public void execute(final Runnable task) {
+			task.run();
+		}
+	}
+}
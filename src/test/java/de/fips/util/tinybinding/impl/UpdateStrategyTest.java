@@ -103,4 +103,29 @@ public class UpdateStrategyTest {
 		verify(beforeSetValidator, times(2)).validate(any(String.class));
 		verifyZeroInteractions(afterGetValidator, converter);
 	}
+
+	@Test
+	public void test_validateWithoutValidatorReturnsSharedOk() {
+		UpdateStrategy<Integer, String> strategy = new UpdateStrategy<Integer, String>();
+		assertThat(strategy.validateAfterGet(Integer.valueOf(10))).isSameAs(ValidationResults.ok());
+		assertThat(strategy.validateBeforeSet("Hello")).isSameAs(ValidationResults.ok());
+	}
+
+	@Test
+	public void test_compileElidesUnconfiguredSteps() {
+		assertThat(new UpdateStrategy<Integer, String>().compile()).isInstanceOf(UpdatePipeline.Identity.class);
+		assertThat(new UpdateStrategy<Integer, String>().converter(converter).compile()).isInstanceOf(UpdatePipeline.Converting.class);
+		assertThat(updateStrategy.compile()).isInstanceOf(UpdatePipeline.Validating.class);
+		assertThat(new UpdateStrategy<Integer, String>() {}.compile()).isInstanceOf(UpdatePipeline.Delegating.class);
+	}
+
+	@Test
+	public void test_compiledPipelineRejectsInvalidValues() {
+		doReturn(ValidationResults.ok()).when(afterGetValidator).validate(any(Integer.class));
+		doReturn("A String").when(converter).convert(eq(Integer.valueOf(10)));
+		doReturn(ValidationResults.error("no")).when(beforeSetValidator).validate(eq("A String"));
+		assertThat(updateStrategy.compile().apply(Integer.valueOf(10))).isSameAs(UpdatePipeline.REJECTED);
+		doReturn(ValidationResults.ok()).when(beforeSetValidator).validate(eq("A String"));
+		assertThat(updateStrategy.compile().apply(Integer.valueOf(10))).isEqualTo("A String");
+	}
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.junit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+
+import de.fips.util.tinybinding.IListObserver;
+import de.fips.util.tinybinding.IObservableList;
+
+/**
+ * Records list events as readable strings.
+ */
+public class RecordingListObserver<ELEMENT> implements IListObserver<ELEMENT> {
+	@Getter
+	private final List<String> events = new ArrayList<String>();
+
+	@Override
+	public void valuesAdded(final IObservableList<ELEMENT> list, final int index, final int length) {
+		events.add("added " + index + " " + length);
+	}
+
+	@Override
+	public void valuesRemoved(final IObservableList<ELEMENT> list, final int index, final List<ELEMENT> oldElements) {
+		events.add("removed " + index + " " + oldElements);
+	}
+
+	@Override
+	public void valueReplaced(final IObservableList<ELEMENT> list, final int index, final ELEMENT oldElement) {
+		events.add("replaced " + index + " " + oldElement);
+	}
+}
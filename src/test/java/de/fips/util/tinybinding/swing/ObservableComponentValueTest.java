@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.swing;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.swing.edt.GuiActionRunner.execute;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import org.fest.swing.edt.GuiQuery;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import de.fips.util.tinybinding.IValueObserver;
+import de.fips.util.tinybinding.junit.FailOnThreadViolation;
+
+/**
+ * Tests {@link ObservableComponentValue}.
+ */
+@RunWith(JUnit4.class)
+public class ObservableComponentValueTest {
+	@ClassRule
+	public static final FailOnThreadViolation checkThreadViolation = new FailOnThreadViolation();
+
+	private PanelValue value;
+
+	@Before
+	public void setUp() {
+		ComponentWriteCounters.reset();
+		value = execute(new GuiQuery<PanelValue>() {
+			@Override
+			protected PanelValue executeInEDT() {
+				return new PanelValue(new JPanel());
+			}
+		});
+	}
+
+	@Test
+	public void test_burstOfComponentValuesIsAppliedInOrder() throws Exception {
+		final List<Integer> values = new CopyOnWriteArrayList<Integer>();
+		value.addObserver(new IValueObserver<Integer>() {
+			@Override
+			public void valueChanged(final Integer newValue, final Integer oldValue) {
+				values.add(newValue);
+			}
+		}, false);
+		for (int i = 1; i <= 1000; i++) {
+			value.guardedSetValue(Integer.valueOf(i));
+		}
+		final long deadline = System.currentTimeMillis() + 5000;
+		while (!Integer.valueOf(1000).equals(value.get()) && (System.currentTimeMillis() < deadline)) {
+			Thread.sleep(10);
+		}
+		assertThat(value.get().intValue()).isEqualTo(1000);
+		assertThat(values.size()).isLessThanOrEqualTo(1000);
+		for (int i = 1; i < values.size(); i++) {
+			assertThat(values.get(i).intValue()).isGreaterThan(values.get(i - 1).intValue());
+		}
+	}
+
+	@Test
+	public void test_writesToComponentAreCollapsed() throws Exception {
+		for (int i = 1; i <= 100; i++) {
+			value.set(Integer.valueOf(i));
+		}
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+			}
+		});
+		assertThat(value.written.size() + value.getCollapsedWrites()).isEqualTo(100);
+		assertThat(value.written.get(value.written.size() - 1).intValue()).isEqualTo(100);
+		assertThat(ComponentWriteCounters.scheduledWrites()).isEqualTo(value.written.size());
+		assertThat(ComponentWriteCounters.collapsedWrites()).isEqualTo(value.getCollapsedWrites());
+	}
+
+	private static class PanelValue extends ObservableComponentValue<Integer, JPanel> {
+		private final List<Integer> written = new CopyOnWriteArrayList<Integer>();
+
+		public PanelValue(final JPanel panel) {
+			super(panel);
+		}
+
+		@Override
+		protected Integer getComponentValue() {
+			return get();
+		}
+
+		@Override
+		protected void guardedDoSet(final Integer value) {
+			written.add(value);
+		}
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.swing;
+
+import static de.fips.util.tinybinding.Observables.observe;
+import static java.util.Arrays.asList;
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import de.fips.util.tinybinding.IObservableList;
+
+/**
+ * Tests {@link ObservableListModel}.
+ */
+@RunWith(JUnit4.class)
+public class ObservableListModelTest {
+	private IObservableList<String> list;
+	private ObservableListModel<String> model;
+	private List<String> events;
+
+	@Before
+	public void setUp() {
+		list = observe().list(new ArrayList<String>(asList("a", "b", "c")));
+		model = new ObservableListModel<String>(list);
+		events = new CopyOnWriteArrayList<String>();
+		model.addListDataListener(new ListDataListener() {
+			@Override
+			public void intervalAdded(final ListDataEvent e) {
+				events.add("added " + e.getIndex0() + "-" + e.getIndex1());
+			}
+
+			@Override
+			public void intervalRemoved(final ListDataEvent e) {
+				events.add("removed " + e.getIndex0() + "-" + e.getIndex1());
+			}
+
+			@Override
+			public void contentsChanged(final ListDataEvent e) {
+				events.add("changed " + e.getIndex0() + "-" + e.getIndex1());
+			}
+		});
+	}
+
+	@Test
+	public void test_changesAreReportedWithTheirIntervals() throws Exception {
+		list.add("d");
+		flush();
+		list.set(0, "x");
+		flush();
+		list.removeRange(1, 3);
+		flush();
+		assertThat(events).isEqualTo(asList("added 3-3", "changed 0-0", "removed 1-2"));
+		assertThat(contents()).isEqualTo(asList("x", "d"));
+	}
+
+	@Test
+	public void test_adjacentChangesAreMergedPerCycle() throws Exception {
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				for (int i = 0; i < 100; i++) {
+					list.add("row " + i);
+				}
+				for (int i = 0; i < 3; i++) {
+					list.remove(0);
+				}
+			}
+		});
+		flush();
+		assertThat(events).isEqualTo(asList("added 3-102", "removed 0-2"));
+		assertThat(model.getSize()).isEqualTo(100);
+		assertThat(contents()).isEqualTo(list);
+	}
+
+	@Test
+	public void test_disposeStopsObserving() throws Exception {
+		model.dispose();
+		list.add("d");
+		flush();
+		assertThat(events).isEmpty();
+		assertThat(model.getSize()).isEqualTo(3);
+	}
+
+	private List<String> contents() {
+		final List<String> contents = new ArrayList<String>();
+		for (int i = 0; i < model.getSize(); i++) {
+			contents.add(model.getElementAt(i));
+		}
+		return contents;
+	}
+
+	private static void flush() throws Exception {
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+			}
+		});
+	}
+}
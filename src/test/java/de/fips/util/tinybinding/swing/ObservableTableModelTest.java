@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.swing;
+
+import static de.fips.util.tinybinding.Observables.observe;
+import static java.util.Arrays.asList;
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import de.fips.util.tinybinding.IConverter;
+import de.fips.util.tinybinding.IObservableList;
+
+/**
+ * Tests {@link ObservableTableModel}.
+ */
+@RunWith(JUnit4.class)
+public class ObservableTableModelTest {
+	private IObservableList<String> list;
+	private ObservableTableModel<String> model;
+	private List<String> events;
+
+	@Before
+	public void setUp() {
+		list = observe().list(new ArrayList<String>(asList("a", "bb", "ccc")));
+		model = new ObservableTableModel<String>(list) //
+			.column("Text", new IConverter<String, String>() {
+				@Override
+				public String convert(final String value) {
+					return value;
+				}
+			}) //
+			.column("Length", new IConverter<String, Integer>() {
+				@Override
+				public Integer convert(final String value) {
+					return Integer.valueOf(value.length());
+				}
+			});
+		events = new CopyOnWriteArrayList<String>();
+		model.addTableModelListener(new TableModelListener() {
+			@Override
+			public void tableChanged(final TableModelEvent e) {
+				events.add(e.getType() + " " + e.getFirstRow() + "-" + e.getLastRow());
+			}
+		});
+	}
+
+	@Test
+	public void test_columns() {
+		assertThat(model.getColumnCount()).isEqualTo(2);
+		assertThat(model.getColumnName(1)).isEqualTo("Length");
+		assertThat(model.getRowCount()).isEqualTo(3);
+		assertThat(model.getValueAt(2, 0)).isEqualTo("ccc");
+		assertThat(model.getValueAt(2, 1)).isEqualTo(Integer.valueOf(3));
+	}
+
+	@Test
+	public void test_onlyChangedRowsAreReported() throws Exception {
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				list.set(1, "dddd");
+				list.addAll(asList("e", "f"));
+				list.remove(0);
+			}
+		});
+		flush();
+		assertThat(events).isEqualTo(asList( //
+			TableModelEvent.UPDATE + " 1-1", //
+			TableModelEvent.INSERT + " 3-4", //
+			TableModelEvent.DELETE + " 0-0"));
+		assertThat(model.getRowCount()).isEqualTo(4);
+		assertThat(model.getRow(0)).isEqualTo("dddd");
+		assertThat(model.getValueAt(0, 1)).isEqualTo(Integer.valueOf(4));
+	}
+
+	private static void flush() throws Exception {
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+			}
+		});
+	}
+}
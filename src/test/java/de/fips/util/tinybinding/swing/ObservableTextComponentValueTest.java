@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.swing;
+
+import static java.util.Arrays.asList;
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.PlainDocument;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests {@link ObservableTextComponentValue} and {@link DocumentCharSequence}.
+ */
+@RunWith(JUnit4.class)
+public class ObservableTextComponentValueTest {
+	private PlainDocument document;
+	private List<String> edits;
+
+	@Before
+	public void setUp() throws Exception {
+		document = new PlainDocument();
+		document.insertString(0, "Hello World", null);
+		edits = new ArrayList<String>();
+		document.addDocumentListener(new DocumentListener() {
+			@Override
+			public void insertUpdate(final DocumentEvent event) {
+				edits.add("insert " + event.getOffset() + "," + event.getLength());
+			}
+
+			@Override
+			public void removeUpdate(final DocumentEvent event) {
+				edits.add("remove " + event.getOffset() + "," + event.getLength());
+			}
+
+			@Override
+			public void changedUpdate(final DocumentEvent event) {
+				edits.add("change " + event.getOffset() + "," + event.getLength());
+			}
+		});
+	}
+
+	@Test
+	public void test_insertOnlyInsertsChangedRegion() throws Exception {
+		ObservableTextComponentValue.replaceChangedRegion(document, "Hello Brave World");
+		assertThat(document.getText(0, document.getLength())).isEqualTo("Hello Brave World");
+		assertThat(edits).isEqualTo(asList("insert 6,6"));
+	}
+
+	@Test
+	public void test_replaceOnlyReplacesChangedRegion() throws Exception {
+		ObservableTextComponentValue.replaceChangedRegion(document, "Hello There");
+		assertThat(document.getText(0, document.getLength())).isEqualTo("Hello There");
+		assertThat(edits).isEqualTo(asList("remove 6,5", "insert 6,5"));
+	}
+
+	@Test
+	public void test_unchangedTextDoesNotTouchDocument() throws Exception {
+		ObservableTextComponentValue.replaceChangedRegion(document, "Hello World");
+		assertThat(edits).isEmpty();
+	}
+
+	@Test
+	public void test_sequenceKeepsTextOfItsCreation() throws Exception {
+		final CharSequence text = DocumentCharSequence.snapshotOf(document);
+		document.insertString(0, "Goodbye. ", null);
+		assertThat(text.toString()).isEqualTo("Hello World");
+		assertThat(text.subSequence(6, 11).toString()).isEqualTo("World");
+	}
+
+	@Test
+	public void test_sequencesWithEqualTextAreEqual() throws Exception {
+		final CharSequence text = DocumentCharSequence.snapshotOf(document);
+		assertThat(DocumentCharSequence.snapshotOf(document)).isEqualTo(text);
+		assertThat(DocumentCharSequence.snapshotOf(document).hashCode()).isEqualTo(text.hashCode());
+		document.insertString(5, ",", null);
+		assertThat(DocumentCharSequence.snapshotOf(document)).isNotEqualTo(text);
+	}
+
+	@Test
+	public void test_nullClearsDocument() throws Exception {
+		ObservableTextComponentValue.replaceChangedRegion(document, null);
+		assertThat(document.getLength()).isEqualTo(0);
+		assertThat(edits).isEqualTo(asList("remove 0,11"));
+	}
+}
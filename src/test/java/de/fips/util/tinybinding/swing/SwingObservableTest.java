@@ -285,6 +285,18 @@ public class SwingObservableTest {
 		verify(observer, times(1)).valueChanged(eq("TextComponent new Document"), any(String.class));
 	}
 
+	@Test
+	public void test_observeTextSequence_TextComponent() {
+		final JTextComponent textArea = window.textBox("textArea").component();
+		IObservableValue<CharSequence> text = observe(textArea).textSequence();
+		inEDT(textArea).setText("TextComponent Text");
+		window.robot.waitForIdle();
+		assertEquals("TextComponent Text", text.get().toString());
+		text.set("TextComponent Sequence");
+		window.robot.waitForIdle();
+		window.textBox("textArea").requireText("TextComponent Sequence");
+	}
+
 	@Test
 	public void test_observeTooltip() {
 		final JButton button1 = window.button("button1").component();
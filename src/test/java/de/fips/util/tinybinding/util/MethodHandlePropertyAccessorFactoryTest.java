@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2010-2011 Philipp Eichhorn.
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.fips.util.tinybinding.util;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import lombok.Data;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import de.fips.util.tinybinding.IPropertyAccessor;
+import de.fips.util.tinybinding.PropertyAccessors;
+import de.fips.util.tinybinding.junit.ExpectedException;
+
+/**
+ * Tests {@link MethodHandlePropertyAccessorFactory}.
+ */
+@RunWith(JUnit4.class)
+public class MethodHandlePropertyAccessorFactoryTest {
+	@Rule
+	public final ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void test_getAndSet() throws Exception {
+		TestPojo pojo = new TestPojo();
+		IPropertyAccessor<String> accessor = new MethodHandlePropertyAccessorFactory().create("text", TestPojo.class.getMethod("getText"),
+				TestPojo.class.getMethod("setText", String.class));
+		accessor.set(pojo, "42");
+		assertThat(pojo.getText()).isEqualTo("42");
+		assertThat(accessor.get(pojo)).isEqualTo("42");
+	}
+
+	@Test
+	public void test_getAndSet_primitive() throws Exception {
+		TestPojo pojo = new TestPojo();
+		IPropertyAccessor<Boolean> accessor = new MethodHandlePropertyAccessorFactory().create("bool", TestPojo.class.getMethod("isBool"),
+				TestPojo.class.getMethod("setBool", boolean.class));
+		accessor.set(pojo, Boolean.TRUE);
+		assertThat(pojo.isBool()).isTrue();
+		assertThat(accessor.get(pojo).booleanValue()).isTrue();
+	}
+
+	@Test
+	public void test_missingSetterIsNotWritable() throws Exception {
+		IPropertyAccessor<String> accessor = new MethodHandlePropertyAccessorFactory().create("text", TestPojo.class.getMethod("getText"), null);
+		assertThat(accessor.isReadable()).isTrue();
+		assertThat(accessor.isWritable()).isFalse();
+		thrown.expect(IllegalStateException.class);
+		accessor.set(new TestPojo(), "42");
+	}
+
+	@Test
+	public void test_nullForPrimitiveIsRejected() throws Exception {
+		IPropertyAccessor<Boolean> accessor = new MethodHandlePropertyAccessorFactory().create("bool", TestPojo.class.getMethod("isBool"),
+				TestPojo.class.getMethod("setBool", boolean.class));
+		thrown.expect(IllegalStateException.class);
+		accessor.set(new TestPojo(), null);
+	}
+
+	@Test
+	public void test_selectedViaPropertyAccessors() {
+		try {
+			PropertyAccessors.setFactory(new MethodHandlePropertyAccessorFactory());
+			IPropertyAccessor<String> accessor = PropertyAccessors.of(TestPojo.class, "text", String.class);
+			assertThat(accessor).isInstanceOf(MethodHandlePropertyAccessor.class);
+		} finally {
+			PropertyAccessors.setFactory(PropertyAccessors.reflection());
+		}
+	}
+
+	@Data
+	public static class TestPojo {
+		private String text;
+		private boolean bool;
+	}
+}